@@ -13,8 +13,13 @@ import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.impl.SimpleLogger;
@@ -27,7 +32,10 @@ import org.toradocu.generator.OracleGenerator;
 import org.toradocu.generator.TestGenerator;
 import org.toradocu.output.util.JsonOutput;
 import org.toradocu.translator.CommentTranslator;
+import org.toradocu.translator.JavaElementsCollector;
+import org.toradocu.translator.Parser;
 import org.toradocu.translator.semantic.SemanticMatcher;
+import org.toradocu.util.ComplianceChecks;
 import org.toradocu.util.GsonInstance;
 import org.toradocu.util.Stats;
 import randoop.condition.specification.Guard;
@@ -74,6 +82,13 @@ public class Toradocu {
       System.exit(1);
     }
 
+    if (configuration.getTargetClass() == null && !configuration.isBatchMode()) {
+      jCommander.usage();
+      System.out.println(
+          "One of the options --target-class, --target-classes, --target-package is required.");
+      System.exit(1);
+    }
+
     if (configuration.debug()) {
       System.setProperty(SimpleLogger.DEFAULT_LOG_LEVEL_KEY, "trace");
     }
@@ -83,6 +98,15 @@ public class Toradocu {
     System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "edu.stanford", "error");
     log = LoggerFactory.getLogger(Toradocu.class);
 
+    if (configuration.isBatchMode()) {
+      runBatch(configuration.getTargetClasses());
+      return;
+    }
+
+    // Enable or disable semantic matching. This is done before the extraction, since the semantic
+    // model starts loading in background as soon as semantic matching is enabled.
+    SemanticMatcher.setEnabled(configuration.isSemanticMatcherEnabled());
+
     // === Javadoc Extractor ===
 
     List<DocumentedExecutable> members = null;
@@ -135,9 +159,6 @@ public class Toradocu {
 
     // === Condition Translator ===
 
-    // Enable or disable semantic matching
-    SemanticMatcher.setEnabled(configuration.isSemanticMatcherEnabled());
-
     if (configuration.isConditionTranslationEnabled()) {
       Map<DocumentedExecutable, OperationSpecification> specifications;
 
@@ -232,6 +253,146 @@ public class Toradocu {
     }
   }
 
+  /**
+   * Analyzes all the given classes in a single run, reusing the Stanford parser, the GloVe model,
+   * and all the caches loaded for the first class. Classes are translated in parallel by {@code
+   * Configuration#getJobs()} worker threads; outputs are merged in the order of {@code
+   * targetClasses}, so they do not depend on the number of workers. An error in the analysis of a
+   * class is logged and does not stop the analysis of the other classes. Condition translator
+   * output of each class is exported to {@code Configuration#getBatchOutputDir()}, if specified;
+   * the merged output of all classes is exported to {@code
+   * Configuration#getConditionTranslatorOutput()} (or printed on the standard output if no output
+   * option is specified). Statistics, tests, and aspects are generated only when analyzing a single
+   * class.
+   *
+   * @param targetClasses fully-qualified names of the classes to analyze
+   */
+  private static void runBatch(List<String> targetClasses) {
+    final int jobs = Math.max(1, Math.min(configuration.getJobs(), targetClasses.size()));
+    log.info("Batch mode: analyzing " + targetClasses.size() + " classes with " + jobs + " jobs");
+    SemanticMatcher.setEnabled(configuration.isSemanticMatcherEnabled());
+    final File batchOutputDir = configuration.getBatchOutputDir();
+    if (batchOutputDir != null) {
+      try {
+        Files.createDirectories(batchOutputDir.toPath());
+      } catch (IOException e) {
+        log.error("Unable to create directory " + batchOutputDir.getAbsolutePath(), e);
+      }
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(jobs);
+    List<Future<ClassTranslation>> translations = new ArrayList<>();
+    for (String targetClass : targetClasses) {
+      translations.add(executor.submit(() -> translateClass(targetClass)));
+    }
+    executor.shutdown();
+
+    List<DocumentedExecutable> allMembers = new ArrayList<>();
+    List<JsonOutput> allJsonOutputs = new ArrayList<>();
+    Map<DocumentedExecutable, OperationSpecification> allSpecifications = new LinkedHashMap<>();
+    int failures = 0;
+    for (int i = 0; i < targetClasses.size(); i++) {
+      final String targetClass = targetClasses.get(i);
+      final ClassTranslation translation;
+      try {
+        translation = translations.get(i).get();
+      } catch (ExecutionException e) {
+        failures++;
+        log.error(
+            "Error during the analysis of class " + targetClass + ". Class skipped.", e.getCause());
+        continue;
+      } catch (InterruptedException e) {
+        log.error("Batch mode interrupted while analyzing class " + targetClass, e);
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      allMembers.addAll(translation.members);
+      if (translation.specifications == null) { // Condition translation is disabled.
+        continue;
+      }
+      allSpecifications.putAll(translation.specifications);
+      List<JsonOutput> jsonOutputs = new ArrayList<>();
+      for (DocumentedExecutable executable : translation.specifications.keySet()) {
+        jsonOutputs.add(new JsonOutput(executable, translation.specifications.get(executable)));
+      }
+      allJsonOutputs.addAll(jsonOutputs);
+      if (batchOutputDir != null
+          && (!configuration.isSilent() || !translation.specifications.isEmpty())) {
+        writeJson(new File(batchOutputDir, targetClass + "_out.json"), jsonOutputs);
+      }
+    }
+    // All the classes have been analyzed: the threads of the executor no longer check specs.
+    ComplianceChecks.closeFileManagers();
+    log.info(
+        "Batch mode: analyzed "
+            + (targetClasses.size() - failures)
+            + " classes, "
+            + failures
+            + " skipped because of errors");
+
+    if (configuration.getJavadocExtractorOutput() != null) {
+      writeJson(configuration.getJavadocExtractorOutput(), allMembers);
+    }
+    if (configuration.isConditionTranslationEnabled()) {
+      if (!configuration.isSilent() || !allSpecifications.isEmpty()) {
+        if (configuration.getConditionTranslatorOutput() != null) {
+          writeJson(configuration.getConditionTranslatorOutput(), allJsonOutputs);
+        } else if (batchOutputDir == null) {
+          System.out.println(
+              "Condition translator output:\n" + GsonInstance.gson().toJson(allJsonOutputs));
+        }
+      }
+      generateRandoopSpecs(allSpecifications);
+    }
+    if (configuration.getExpectedOutput() != null
+        || configuration.isTestGenerationEnabled()
+        || configuration.isOracleGenerationEnabled()) {
+      log.info("Statistics, test generation, and oracle generation are skipped in batch mode.");
+    }
+  }
+
+  /**
+   * Extracts the documented executables of the given class and, if condition translation is
+   * enabled, translates their comments. This method is executed by batch mode worker threads.
+   *
+   * @param targetClass fully-qualified name of the class to analyze
+   * @return the documented executables of {@code targetClass} and their specifications
+   * @throws Exception if an error occurs during the analysis of {@code targetClass}
+   */
+  private static ClassTranslation translateClass(String targetClass) throws Exception {
+    log.info("Analyzing " + targetClass);
+    final List<DocumentedExecutable> members =
+        new JavadocExtractor()
+            .extract(targetClass, configuration.sourceDir.toString())
+            .getDocumentedExecutables();
+    Map<DocumentedExecutable, OperationSpecification> specifications = null;
+    if (configuration.isConditionTranslationEnabled()) {
+      try {
+        specifications = CommentTranslator.createSpecifications(members);
+      } finally {
+        Parser.clearCache(members);
+        JavaElementsCollector.clearCache(members);
+      }
+    }
+    return new ClassTranslation(members, specifications);
+  }
+
+  /**
+   * Writes the JSON representation of {@code content} to {@code file}. Errors are logged.
+   *
+   * @param file the file to write
+   * @param content the object to export in JSON format
+   */
+  private static void writeJson(File file, Object content) {
+    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      writer.write(GsonInstance.gson().toJson(content));
+    } catch (Exception e) {
+      log.error("Unable to write the output on file " + file.getAbsolutePath(), e);
+    }
+  }
+
   /**
    * Export the specifications in {@code specsMap} to {@code conf.Configuration#randoopSpecsFile()}
    * as Randoop specifications.
@@ -368,4 +529,19 @@ public class Toradocu {
       }
     }
   }
+
+  /** Documented executables of a class and their specifications, as produced in batch mode. */
+  private static class ClassTranslation {
+    /** Documented executables of the class. */
+    private final List<DocumentedExecutable> members;
+    /** Specifications of the documented executables, or null if translation is disabled. */
+    private final Map<DocumentedExecutable, OperationSpecification> specifications;
+
+    ClassTranslation(
+        List<DocumentedExecutable> members,
+        Map<DocumentedExecutable, OperationSpecification> specifications) {
+      this.members = members;
+      this.specifications = specifications;
+    }
+  }
 }
@@ -3,10 +3,15 @@ package org.toradocu.conf;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.converters.FileConverter;
 import com.beust.jcommander.converters.PathConverter;
+import com.beust.jcommander.validators.PositiveInteger;
 import java.io.File;
 import java.net.URL;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /** Holds the configuration options (particularly command-line options) for Toradocu. */
 @SuppressWarnings("ImmutableEnumChecker")
@@ -22,10 +27,24 @@ public enum Configuration {
 
   @Parameter(
       names = "--target-class",
-      description = "Fully-qualified name of the class that Toradocu should analyze",
-      required = true)
+      description = "Fully-qualified name of the class that Toradocu should analyze")
   private String targetClass;
 
+  @Parameter(
+      names = "--target-classes",
+      description =
+          "Comma-separated fully-qualified names of the classes that Toradocu should analyze in a"
+              + " single run (batch mode)")
+  private List<String> targetClasses = new ArrayList<>();
+
+  @Parameter(
+      names = "--target-package",
+      description =
+          "Analyze in batch mode every class in the source directory whose fully-qualified name"
+              + " matches the given pattern. '*' does not match dots, '**' does"
+              + " (e.g., mypackage.* or mypackage.** or **)")
+  private List<String> targetPackages = new ArrayList<>();
+
   @Parameter(
       names = "--source-dir",
       description = "Path of the directory containing source files of the target class",
@@ -77,6 +96,14 @@ public enum Configuration {
       hidden = true)
   private File javadocExtractorOutput;
 
+  @Parameter(
+      names = "--fast-extraction",
+      description =
+          "Skip the bodies of methods, constructors, and initializers when parsing source files,"
+              + " since the Javadoc extractor only needs declarations and comments",
+      arity = 1)
+  private boolean fastExtraction = false;
+
   // Condition translator options
 
   @Parameter(
@@ -100,6 +127,20 @@ public enum Configuration {
       converter = FileConverter.class)
   private File conditionTranslatorOutput;
 
+  @Parameter(
+      names = "--batch-output-dir",
+      description =
+          "Directory where to export condition translator output in batch mode, one JSON file per"
+              + " class",
+      converter = FileConverter.class)
+  private File batchOutputDir;
+
+  @Parameter(
+      names = "--jobs",
+      description = "Number of classes translated in parallel in batch mode",
+      validateWith = PositiveInteger.class)
+  private int jobs = 1;
+
   @Parameter(
       names = "--distance-threshold",
       description =
@@ -150,6 +191,62 @@ public enum Configuration {
       arity = 1)
   private boolean disableSemantics = false;
 
+  @Parameter(
+      names = "--semantic-top-k",
+      description =
+          "Number of candidate code elements whose Word Mover's Distance from a comment is computed:"
+              + " only the candidates whose names are the nearest to the comment in the vector space"
+              + " are considered. 0 to consider all the candidates")
+  private int semanticTopK = 0;
+
+  @Parameter(
+      names = "--fast-lemmatization",
+      description =
+          "Lemmatize words for the semantic matcher with the morphological analyzer alone, instead"
+              + " of parsing comments with the Stanford parser",
+      arity = 1)
+  private boolean fastLemmatization = false;
+
+  @Parameter(
+      names = "--parallel-translation",
+      description =
+          "Translate the comments of a class in parallel, one task per method and per"
+              + " @throws/@return comment",
+      arity = 1)
+  private boolean parallelTranslation = false;
+
+  @Parameter(
+      names = "--batch-compliance-checks",
+      description =
+          "Check that the specifications of a class compile with a single compiler invocation,"
+              + " instead of compiling every specification as soon as it is translated",
+      arity = 1)
+  private boolean batchComplianceChecks = false;
+
+  @Parameter(
+      names = "--parse-cache-dir",
+      description =
+          "Directory where to store the results of the Stanford parser, so that sentences parsed in"
+              + " a previous run are not parsed again",
+      converter = FileConverter.class)
+  private File parseCacheDir;
+
+  @Parameter(
+      names = "--semantic-diagnostics-dir",
+      description =
+          "Directory where to log the distances computed by the semantic matcher, in a CSV file per"
+              + " run. Cached semantic matches are not used while distances are logged",
+      converter = FileConverter.class)
+  private File semanticDiagnosticsDir;
+
+  @Parameter(
+      names = "--model-cache-dir",
+      description =
+          "Directory where the GloVe models in the Toradocu jar are extracted, shared by all the"
+              + " Toradocu processes (default: .toradocu/models in the user home directory)",
+      converter = FileConverter.class)
+  private File modelCacheDir;
+
   // Aspect creation options
 
   @Parameter(
@@ -238,6 +335,35 @@ public enum Configuration {
     return targetClass;
   }
 
+  /**
+   * Returns the fully-qualified names of all the classes to analyze: the one specified with
+   * --target-class, the ones specified with --target-classes, and the ones in the source directory
+   * that match a --target-package pattern. Duplicates are removed.
+   *
+   * @return the fully-qualified names of all the classes to analyze
+   */
+  public List<String> getTargetClasses() {
+    Set<String> classes = new LinkedHashSet<>();
+    if (targetClass != null) {
+      classes.add(targetClass);
+    }
+    classes.addAll(targetClasses);
+    for (String pattern : targetPackages) {
+      classes.addAll(TargetClasses.matching(sourceDir, pattern));
+    }
+    return new ArrayList<>(classes);
+  }
+
+  /**
+   * Returns true if Toradocu analyzes multiple classes in a single run, i.e., if option
+   * --target-classes or --target-package is specified.
+   *
+   * @return true if Toradocu runs in batch mode, false otherwise
+   */
+  public boolean isBatchMode() {
+    return !targetClasses.isEmpty() || !targetPackages.isEmpty();
+  }
+
   /**
    * Returns true if fine-grained logging should be enabled.
    *
@@ -267,6 +393,16 @@ public enum Configuration {
     return javadocExtractorOutput;
   }
 
+  /**
+   * Returns whether the Javadoc extractor skips the bodies of methods, constructors, and
+   * initializers when parsing source files.
+   *
+   * @return true if source files are parsed without bodies, false otherwise
+   */
+  public boolean isFastExtractionEnabled() {
+    return fastExtraction;
+  }
+
   /**
    * Returns the input file to the condition translator or null if this file is not specified.
    *
@@ -285,6 +421,26 @@ public enum Configuration {
     return conditionTranslatorOutput;
   }
 
+  /**
+   * Returns the directory in which to export the condition translator output of each class in
+   * batch mode, or null if this directory is not specified.
+   *
+   * @return the directory in which to export the condition translator output of each class in
+   *     batch mode, or null if this directory is not specified
+   */
+  public File getBatchOutputDir() {
+    return batchOutputDir;
+  }
+
+  /**
+   * Returns the number of classes translated in parallel in batch mode.
+   *
+   * @return the number of classes translated in parallel in batch mode
+   */
+  public int getJobs() {
+    return jobs;
+  }
+
   /**
    * Returns true if condition translation is enabled.
    *
@@ -427,6 +583,78 @@ public enum Configuration {
     return !disableSemantics;
   }
 
+  /**
+   * Returns the number of candidate code elements whose distance from a comment is computed by the
+   * semantic matcher, or 0 if the distance is computed for all the candidates.
+   *
+   * @return the number of candidates considered by the semantic matcher, 0 for all the candidates
+   */
+  public int getSemanticTopK() {
+    return semanticTopK;
+  }
+
+  /**
+   * Returns whether the semantic matcher lemmatizes words with the morphological analyzer alone. If
+   * false, comments and code element names are parsed with the Stanford parser to lemmatize them.
+   *
+   * @return true if words are lemmatized without parsing, false otherwise
+   */
+  public boolean isFastLemmatizationEnabled() {
+    return fastLemmatization;
+  }
+
+  /**
+   * Returns whether the comments of a class are translated in parallel.
+   *
+   * @return true if methods and their comments are translated in parallel, false otherwise
+   */
+  public boolean isParallelTranslationEnabled() {
+    return parallelTranslation;
+  }
+
+  /**
+   * Returns whether the specifications of a class are checked for compliance all together, after
+   * all the comments of the class have been translated.
+   *
+   * @return true if the specifications of a class are compiled in batch, false otherwise
+   */
+  public boolean isBatchComplianceCheckEnabled() {
+    return batchComplianceChecks;
+  }
+
+  /**
+   * Returns the directory of the persistent cache of the Stanford parser results, or null if the
+   * cache is disabled.
+   *
+   * @return the directory of the persistent cache of the Stanford parser results, or null if the
+   *     cache is disabled
+   */
+  public File getParseCacheDir() {
+    return parseCacheDir;
+  }
+
+  /**
+   * Returns the directory where the distances computed by the semantic matcher are logged, or null
+   * if they are not logged.
+   *
+   * @return the directory of the semantic matcher logs, or null if logging is disabled
+   */
+  public File getSemanticDiagnosticsDir() {
+    return semanticDiagnosticsDir;
+  }
+
+  /**
+   * Returns the directory where the GloVe models in the Toradocu jar are extracted.
+   *
+   * @return the directory where the GloVe models are extracted
+   */
+  public File getModelCacheDir() {
+    if (modelCacheDir == null) {
+      return Paths.get(System.getProperty("user.home"), ".toradocu", "models").toFile();
+    }
+    return modelCacheDir;
+  }
+
   /**
    * Returns whether Toradocu generates or not output when it has not been able to translate any
    * comment.
@@ -0,0 +1,90 @@
+package org.toradocu.conf;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the classes to analyze in batch mode. A class pattern is a fully-qualified class name
+ * where {@code *} matches any sequence of characters within a package or class name and {@code **}
+ * matches any sequence of characters, including dots. For example, {@code org.foo.*} matches all
+ * the classes in package {@code org.foo}, {@code org.foo.**} matches also the classes in its
+ * subpackages, and {@code **} matches every class in the source directory.
+ */
+public final class TargetClasses {
+
+  /** Disables construction of this class. */
+  private TargetClasses() {}
+
+  /**
+   * Returns the fully-qualified names of the top-level classes whose source file is in {@code
+   * sourceDir} and whose name matches {@code pattern}. Names are sorted alphabetically.
+   *
+   * @param sourceDir the source root folder, i.e. the folder containing the default package
+   * @param pattern the pattern the class names must match
+   * @return the sorted fully-qualified names of the matching classes
+   * @throws UncheckedIOException if an I/O error occurs while visiting {@code sourceDir}
+   */
+  public static List<String> matching(Path sourceDir, String pattern) {
+    final Pattern regex = toRegex(pattern);
+    try (Stream<Path> files = Files.walk(sourceDir)) {
+      return files
+          .filter(Files::isRegularFile)
+          .map(file -> toClassName(sourceDir, file))
+          .filter(name -> name != null && regex.matcher(name).matches())
+          .sorted()
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to list source files in " + sourceDir, e);
+    }
+  }
+
+  /**
+   * Returns the fully-qualified name of the class defined in the given source file, or null if
+   * {@code sourceFile} is not the source file of a class (e.g., a package-info.java file).
+   *
+   * @param sourceDir the source root folder
+   * @param sourceFile a file in {@code sourceDir}
+   * @return the fully-qualified name of the class defined in {@code sourceFile} or null
+   */
+  private static String toClassName(Path sourceDir, Path sourceFile) {
+    final String fileName = sourceFile.getFileName().toString();
+    if (!fileName.endsWith(".java") || fileName.contains("-")) {
+      // Files like package-info.java and module-info.java do not define classes.
+      return null;
+    }
+    final Path relativePath = sourceDir.relativize(sourceFile);
+    final String name =
+        relativePath.toString().replace(relativePath.getFileSystem().getSeparator(), ".");
+    return name.substring(0, name.length() - ".java".length());
+  }
+
+  /**
+   * Translates the given class pattern into a regular expression.
+   *
+   * @param pattern a class pattern
+   * @return the regular expression corresponding to {@code pattern}
+   */
+  private static Pattern toRegex(String pattern) {
+    StringBuilder regex = new StringBuilder();
+    for (int i = 0; i < pattern.length(); i++) {
+      final char c = pattern.charAt(i);
+      if (c == '*') {
+        if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+          regex.append(".*");
+          i++;
+        } else {
+          regex.append("[^.]*");
+        }
+      } else {
+        regex.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+    return Pattern.compile(regex.toString());
+  }
+}
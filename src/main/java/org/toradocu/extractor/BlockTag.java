@@ -37,8 +37,11 @@ public abstract class BlockTag {
   /** The kind of this tag (e.g., @throws, @param). */
   private final Kind kind;
 
-  /** The comment of this tag. */
-  private Comment comment;
+  /**
+   * The comment of this tag. Preprocessing replaces the comment while other tags of the same method
+   * may be translated concurrently.
+   */
+  private volatile Comment comment;
 
   /**
    * Constructs a {@code BlockTag} of the specific kind, with the given comment.
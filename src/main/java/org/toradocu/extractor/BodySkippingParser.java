@@ -0,0 +1,318 @@
+package org.toradocu.extractor;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Parser of Java source files that skips the bodies of methods, constructors, and initializers. The
+ * Javadoc extractor only needs the declarations of types and members, with their modifiers,
+ * signatures, and Javadoc comments, while most of the time and memory spent to parse a source file
+ * goes to the statements in bodies. Before the source code is parsed, a lightweight scanner empties
+ * the bodies (only their line separators are kept, so that nodes keep their lines), and JavaParser
+ * builds an abstract syntax tree of the declarations alone.
+ *
+ * <p>The scanner recognizes bodies by the code preceding their opening brace at the level of a type
+ * body: a closing parenthesis, possibly followed by a {@code throws} clause, for methods and
+ * constructors; nothing but {@code static} for initializers. Braces in field initializers (array
+ * initializers, anonymous classes, and lambdas) and in annotations are left untouched, as well as
+ * the bodies of types and enum constants.
+ */
+final class BodySkippingParser {
+
+  /** Kinds of blocks delimited by braces. */
+  private enum Block {
+    /** Body of a class, interface, or annotation type. */
+    TYPE,
+    /** Body of an enum, before the semicolon ending its constants. */
+    ENUM_CONSTANTS,
+    /** Body of an enum, after the semicolon ending its constants. */
+    ENUM_MEMBERS,
+    /** Braces in an expression, whose content is copied unchanged. */
+    EXPRESSION
+  }
+
+  private BodySkippingParser() {}
+
+  /**
+   * Parses the given source file skipping the bodies of its methods, constructors, and
+   * initializers.
+   *
+   * @param sourceFile the source file to parse
+   * @return the compilation unit of {@code sourceFile}, with empty bodies
+   * @throws FileNotFoundException if {@code sourceFile} does not exist
+   */
+  static CompilationUnit parse(Path sourceFile) throws FileNotFoundException {
+    if (!Files.isRegularFile(sourceFile)) {
+      throw new FileNotFoundException(sourceFile.toString());
+    }
+    final String source;
+    try {
+      source = new String(Files.readAllBytes(sourceFile), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return JavaParser.parse(skipBodies(source));
+  }
+
+  /**
+   * Returns the given source code where the bodies of methods, constructors, and initializers are
+   * emptied. Line separators in bodies are kept.
+   *
+   * @param source the source code of a compilation unit
+   * @return {@code source} without bodies
+   */
+  static String skipBodies(String source) {
+    final StringBuilder result = new StringBuilder(source.length());
+    // Blocks enclosing the current position; the compilation unit is at the level of a type body.
+    final Deque<Block> blocks = new ArrayDeque<>();
+    // Tokens of the current declaration, since the end of the previous one. Tokens between
+    // parentheses (parameters and annotation values) are left out.
+    final List<String> header = new ArrayList<>();
+    int parenDepth = 0;
+
+    int i = 0;
+    while (i < source.length()) {
+      final int end = skipLiteralOrComment(source, i);
+      if (end != i) {
+        result.append(source, i, end);
+        if (parenDepth == 0 && (source.charAt(i) == '"' || source.charAt(i) == '\'')) {
+          header.add("literal");
+        }
+        i = end;
+        continue;
+      }
+
+      final char c = source.charAt(i);
+      final Block block = blocks.peek();
+      if (block == Block.EXPRESSION) {
+        // Only braces matter in an expression.
+        if (c == '{') {
+          blocks.push(Block.EXPRESSION);
+        } else if (c == '}') {
+          blocks.pop();
+        }
+        result.append(c);
+        i++;
+        continue;
+      }
+
+      if (Character.isJavaIdentifierStart(c)) {
+        int identifierEnd = i + 1;
+        while (identifierEnd < source.length()
+            && Character.isJavaIdentifierPart(source.charAt(identifierEnd))) {
+          identifierEnd++;
+        }
+        if (parenDepth == 0) {
+          header.add(source.substring(i, identifierEnd));
+        }
+        result.append(source, i, identifierEnd);
+        i = identifierEnd;
+        continue;
+      }
+
+      result.append(c);
+      i++;
+      if (Character.isWhitespace(c) || Character.isDigit(c)) {
+        continue;
+      }
+      if (c == '{' && parenDepth == 0 && block != Block.ENUM_CONSTANTS && isBodyStart(header)) {
+        i = skipBody(source, i, result);
+        header.clear();
+      } else if (c == '{') {
+        blocks.push(parenDepth > 0 ? Block.EXPRESSION : blockStartingAfter(header, block));
+        if (parenDepth == 0) {
+          header.clear();
+        }
+      } else if (c == '}') {
+        blocks.poll();
+        header.clear();
+      } else if (c == ';' && parenDepth == 0) {
+        if (block == Block.ENUM_CONSTANTS) {
+          blocks.pop();
+          blocks.push(Block.ENUM_MEMBERS);
+        }
+        header.clear();
+      } else if (c == ',' && parenDepth == 0 && block == Block.ENUM_CONSTANTS) {
+        header.clear();
+      } else if (c == '(') {
+        if (parenDepth++ == 0) {
+          header.add("(");
+        }
+      } else if (c == ')') {
+        if (parenDepth > 0 && --parenDepth == 0) {
+          header.add(")");
+        }
+      } else if (parenDepth == 0) {
+        header.add(String.valueOf(c));
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Tells whether the brace following the given declaration tokens opens the body of a method, a
+   * constructor, or an initializer.
+   *
+   * @param header the tokens of a declaration, up to an opening brace
+   * @return true if the brace after {@code header} opens a body to skip
+   */
+  private static boolean isBodyStart(List<String> header) {
+    if (header.isEmpty() || (header.size() == 1 && header.get(0).equals("static"))) {
+      // Initializer.
+      return true;
+    }
+    if (declaresType(header) || header.contains("=")) {
+      return false;
+    }
+    final int closingParen = header.lastIndexOf(")");
+    if (closingParen == -1) {
+      return false;
+    }
+    // Methods and constructors: the parameters can be followed by a throws clause or, for methods,
+    // by the brackets of an array return type (but not by the default value of an annotation
+    // element).
+    final List<String> trailer = header.subList(closingParen + 1, header.size());
+    return trailer.isEmpty()
+        || trailer.get(0).equals("throws")
+        || trailer.stream().allMatch(token -> token.equals("[") || token.equals("]"));
+  }
+
+  /**
+   * Returns the kind of the block opened by a brace following the given declaration tokens, when
+   * the brace does not open a body to skip.
+   *
+   * @param header the tokens of a declaration, up to an opening brace
+   * @param enclosingBlock the block enclosing the declaration, null at the top level
+   * @return the kind of the block opened after {@code header}
+   */
+  private static Block blockStartingAfter(List<String> header, Block enclosingBlock) {
+    if (enclosingBlock == Block.ENUM_CONSTANTS) {
+      // Body of an enum constant.
+      return Block.TYPE;
+    }
+    if (declaresType(header)) {
+      return isKeyword(header, "enum") ? Block.ENUM_CONSTANTS : Block.TYPE;
+    }
+    return Block.EXPRESSION;
+  }
+
+  /**
+   * Tells whether the given declaration tokens declare a type.
+   *
+   * @param header the tokens of a declaration
+   * @return true if {@code header} declares a class, interface, enum, or annotation type
+   */
+  private static boolean declaresType(List<String> header) {
+    return isKeyword(header, "class")
+        || isKeyword(header, "interface")
+        || isKeyword(header, "enum");
+  }
+
+  /**
+   * Tells whether the given keyword is among the given tokens. Class literals (e.g., {@code
+   * Foo.class} in an annotation) do not count as the keyword {@code class}.
+   *
+   * @param header the tokens of a declaration
+   * @param keyword a keyword
+   * @return true if {@code keyword} is one of the tokens of {@code header}
+   */
+  private static boolean isKeyword(List<String> header, String keyword) {
+    for (int i = 0; i < header.size(); i++) {
+      if (header.get(i).equals(keyword) && (i == 0 || !header.get(i - 1).equals("."))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Skips the body starting at the given position, right after its opening brace, and appends the
+   * line separators in the body and its closing brace to the result.
+   *
+   * @param source the source code
+   * @param start the position following the opening brace of the body
+   * @param result where to append the emptied body
+   * @return the position following the closing brace of the body
+   */
+  private static int skipBody(String source, int start, StringBuilder result) {
+    int depth = 1;
+    int i = start;
+    while (i < source.length()) {
+      final int end = skipLiteralOrComment(source, i);
+      if (end != i) {
+        appendLineSeparators(source, i, end, result);
+        i = end;
+        continue;
+      }
+      final char c = source.charAt(i++);
+      if (c == '{') {
+        depth++;
+      } else if (c == '}' && --depth == 0) {
+        result.append('}');
+        return i;
+      } else if (c == '\n' || c == '\r') {
+        result.append(c);
+      }
+    }
+    return i;
+  }
+
+  /**
+   * Appends the line separators of the given range of the source code to the result.
+   *
+   * @param source the source code
+   * @param start the start of the range, inclusive
+   * @param end the end of the range, exclusive
+   * @param result where to append the line separators
+   */
+  private static void appendLineSeparators(
+      String source, int start, int end, StringBuilder result) {
+    for (int i = start; i < end; i++) {
+      final char c = source.charAt(i);
+      if (c == '\n' || c == '\r') {
+        result.append(c);
+      }
+    }
+  }
+
+  /**
+   * Returns the end of the string literal, character literal, or comment starting at the given
+   * position.
+   *
+   * @param source the source code
+   * @param start a position in {@code source}
+   * @return the position following the literal or comment starting at {@code start}, or {@code
+   *     start} if no literal or comment starts there
+   */
+  private static int skipLiteralOrComment(String source, int start) {
+    final char c = source.charAt(start);
+    if (c == '"' || c == '\'') {
+      int i = start + 1;
+      while (i < source.length() && source.charAt(i) != c && source.charAt(i) != '\n') {
+        i += source.charAt(i) == '\\' ? 2 : 1;
+      }
+      return Math.min(i + 1, source.length());
+    }
+    if (c == '/' && start + 1 < source.length()) {
+      if (source.charAt(start + 1) == '/') {
+        final int lineEnd = source.indexOf('\n', start);
+        return lineEnd == -1 ? source.length() : lineEnd;
+      }
+      if (source.charAt(start + 1) == '*') {
+        final int commentEnd = source.indexOf("*/", start + 2);
+        return commentEnd == -1 ? source.length() : commentEnd + 2;
+      }
+    }
+    return start;
+  }
+}
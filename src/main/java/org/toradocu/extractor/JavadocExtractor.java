@@ -3,7 +3,6 @@ package org.toradocu.extractor;
 import static java.util.stream.Collectors.toList;
 import static org.toradocu.extractor.DocumentedExecutable.BlockTags;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.Node;
@@ -18,12 +17,13 @@ import com.github.javaparser.ast.nodeTypes.modifiers.NodeWithPrivateModifier;
 import com.github.javaparser.javadoc.Javadoc;
 import com.github.javaparser.javadoc.JavadocBlockTag;
 import com.github.javaparser.javadoc.JavadocBlockTag.Type;
-import java.io.File;
 import java.io.FileNotFoundException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -50,6 +50,28 @@ public final class JavadocExtractor {
   /** Logger of this class. */
   private static final Logger log = LoggerFactory.getLogger(JavadocExtractor.class);
 
+  /** Whether the bodies of methods, constructors, and initializers are skipped by the parser. */
+  private final boolean skipBodies;
+
+  /**
+   * Creates a new extractor, which parses source files as selected by the configuration (see {@link
+   * Configuration#isFastExtractionEnabled()}).
+   */
+  public JavadocExtractor() {
+    this(Configuration.INSTANCE.isFastExtractionEnabled());
+  }
+
+  /**
+   * Creates a new extractor.
+   *
+   * @param skipBodies true if the extractor parses source files without the bodies of methods,
+   *     constructors, and initializers, which the extraction does not need, false if it parses
+   *     whole source files
+   */
+  public JavadocExtractor(boolean skipBodies) {
+    this.skipBodies = skipBodies;
+  }
+
   /**
    * Returns a list of {@code DocumentedExecutable}s extracted from the class with name {@code
    * className}. Parses the Java source code of the specified class ({@code className}), and stores
@@ -77,17 +99,19 @@ public final class JavadocExtractor {
     final ImmutablePair<String, String> fileNameAndSimpleName =
         getFileNameAndSimpleName(clazz, className);
     final String fileName = fileNameAndSimpleName.getLeft();
-    final String sourceFile =
-        sourcePath + File.separator + fileName.replaceAll("\\.", File.separator) + ".java";
+    final SourceIndex sourceIndex = SourceIndex.of(Paths.get(sourcePath));
+    final String sourceFile = sourceIndex.getSourceFile(fileName).toString();
     final String simpleName = fileNameAndSimpleName.getRight();
-    final List<CallableDeclaration<?>> sourceExecutables = getExecutables(simpleName, sourceFile);
+    final List<CallableDeclaration<?>> sourceExecutables =
+        getExecutables(
+            simpleName, sourceIndex.getCompilationUnit(fileName, skipBodies), sourceFile);
 
     // Maps each reflection executable member to its corresponding source executable member.
     Map<Executable, CallableDeclaration<?>> executablesMap =
         mapExecutables(reflectionExecutables, sourceExecutables, className);
 
     // Create the list of ExecutableMembers.
-    List<String> classesInPackage = getClassesInSamePackage(className, sourceFile);
+    List<String> classesInPackage = getClassesInSamePackage(className, sourceIndex);
     List<DocumentedExecutable> documentedExecutables =
         new ArrayList<>(reflectionExecutables.size());
     for (Entry<Executable, CallableDeclaration<?>> entry : executablesMap.entrySet()) {
@@ -131,52 +155,20 @@ public final class JavadocExtractor {
    * Returns the list of class names found in the same package of {@code className}. We need them to
    * map the {@code Exception}s declared in the Javadoc with their corresponding classes.
    *
-   * @param className String name of the class for which to find classes in same package
-   * @param sourceFile path of the class source file
-   * @return list of String holding the qualified class names found in folder
-   */
-  public static List<String> getClassesInSamePackage(String className, String sourceFile) {
-    // TODO Improve the code: this method should return all the available types in a given package.
-    // TODO Replace string manipulation by using data structures
-    String packagePath = sourceFile.substring(0, sourceFile.lastIndexOf("/"));
-    File folder = new File(packagePath);
-    File[] listOfFiles = folder.listFiles();
-    List<String> classesInPackage = new ArrayList<>();
-    if (listOfFiles == null) {
-      return classesInPackage;
-    }
-
-    for (File file : listOfFiles) {
-      if (!file.getName().endsWith(".java")) {
-        continue;
-      }
-      // This loop examines the .java files in the same directory as the .java class being analysed
-      // in order to find eventual Exception classes located in the same package.
-      // "package-info" files are not useful for this purpose.
-      String name = getClassNameForSource(file.getName(), className);
-      if (name != null && !name.equals(className) && !name.contains("package-info")) {
-        classesInPackage.add(name);
-      }
-    }
-    return classesInPackage;
-  }
-
-  /**
-   * Given the simple file name of a source located in the same package of the Class being analysed
-   * and the name of the Class itself, composes the qualified class name corresponding to the
-   * source.
-   *
-   * @param sourceFileName name of the source file found in package
-   * @param analyzedClassName qualified class name of the class being analysed
-   * @return the qualified class name of the source or null if {@code analyzedClassName} does not
-   *     contain a dot (i.e., {@code analyzedClassName} is a simple, not-qualified name)
+   * @param className the binary name of the class for which to find classes in same package
+   * @param sourceIndex the index of the source folder of the class
+   * @return list of String holding the qualified class names found in the package, empty if {@code
+   *     className} is in the default package
    */
-  private static String getClassNameForSource(String sourceFileName, String analyzedClassName) {
-    int lastDot = analyzedClassName.lastIndexOf(".");
+  public static List<String> getClassesInSamePackage(String className, SourceIndex sourceIndex) {
+    int lastDot = className.lastIndexOf(".");
     if (lastDot == -1) {
-      return null;
+      return new ArrayList<>();
     }
-    return analyzedClassName.substring(0, lastDot) + "." + sourceFileName.replace(".java", "");
+    List<String> classesInPackage =
+        new ArrayList<>(sourceIndex.getTypesInPackage(className.substring(0, lastDot)));
+    classesInPackage.remove(className);
+    return classesInPackage;
   }
 
   /**
@@ -448,18 +440,34 @@ public final class JavadocExtractor {
    */
   public List<CallableDeclaration<?>> getExecutables(String className, String sourcePath)
       throws FileNotFoundException {
+    final Path sourceFile = Paths.get(sourcePath);
+    final String fileName = sourceFile.getFileName().toString();
+    final CompilationUnit cu =
+        SourceIndex.of(sourceFile.toAbsolutePath().getParent())
+            .getCompilationUnit(fileName.substring(0, fileName.lastIndexOf('.')), skipBodies);
+    return getExecutables(className, cu, sourcePath);
+  }
+
+  /**
+   * Collects non-private callables from the given compilation unit.
+   *
+   * @param className the String class name
+   * @param cu the compilation unit declaring the class
+   * @param sourcePath the String source path of {@code cu}
+   * @return non private-callables of the class with name {@code className}
+   */
+  private List<CallableDeclaration<?>> getExecutables(
+      String className, CompilationUnit cu, String sourcePath) {
     final List<CallableDeclaration<?>> sourceExecutables = new ArrayList<>();
-    final NodeWithConstructors<?> target = getTypeDefinition(className, sourcePath);
+    final NodeWithConstructors<?> target = getTypeDefinition(className, cu, sourcePath);
     sourceExecutables.addAll(target.getConstructors());
     sourceExecutables.addAll(target.getMethods());
     sourceExecutables.removeIf(NodeWithPrivateModifier::isPrivate); // Ignore private members.
     return Collections.unmodifiableList(sourceExecutables);
   }
 
-  private NodeWithConstructors<?> getTypeDefinition(String typeName, String sourcePath)
-      throws FileNotFoundException {
-    final CompilationUnit cu = JavaParser.parse(new File(sourcePath));
-
+  private NodeWithConstructors<?> getTypeDefinition(
+      String typeName, CompilationUnit cu, String sourcePath) {
     String nestedClassName = "";
     int dollarsPosition = typeName.indexOf("$");
     if (dollarsPosition != -1) {
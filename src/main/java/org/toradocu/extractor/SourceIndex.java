@@ -0,0 +1,144 @@
+package org.toradocu.extractor;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.toradocu.util.Caches;
+
+/**
+ * Index of the Java source files under a source root folder. The index maps each package to the
+ * types it declares, and each source file to its compilation unit. Both are computed lazily, the
+ * first time they are needed, and reused for the rest of the run: packages are listed once, and
+ * source files are parsed once as long as their compilation units stay in a bounded cache shared by
+ * all the indexes. Source files can be parsed in full, or without the bodies of methods,
+ * constructors, and initializers (see {@code BodySkippingParser}). Instances of this class are
+ * thread-safe.
+ */
+public final class SourceIndex {
+
+  /** Maximum number of compilation units kept in memory. */
+  static final int MAX_CACHED_UNITS = 64;
+
+  /** Indexes by (absolute and normalized) source root folder. */
+  private static final Map<Path, SourceIndex> INDEXES = new ConcurrentHashMap<>();
+
+  /**
+   * Compilation units by (absolute and normalized) source file and by whether bodies were skipped,
+   * least recently used first.
+   */
+  private static final Map<Map.Entry<Path, Boolean>, CompilationUnit> UNITS =
+      Caches.lruCache(MAX_CACHED_UNITS);
+
+  /** The source root folder. */
+  private final Path root;
+
+  /** Qualified names of the types declared in each package, by package name. */
+  private final Map<String, List<String>> typesByPackage = new ConcurrentHashMap<>();
+
+  private SourceIndex(Path root) {
+    this.root = root;
+  }
+
+  /**
+   * Returns the index of the given source root folder.
+   *
+   * @param sourceRoot the source root folder
+   * @return the index of {@code sourceRoot}
+   */
+  public static SourceIndex of(Path sourceRoot) {
+    return INDEXES.computeIfAbsent(sourceRoot.toAbsolutePath().normalize(), SourceIndex::new);
+  }
+
+  /**
+   * Returns the source file of the top-level type with the given name, which is not required to
+   * exist.
+   *
+   * @param typeName the qualified name of a top-level type
+   * @return the source file of {@code typeName}
+   */
+  public Path getSourceFile(String typeName) {
+    return root.resolve(typeName.replace('.', File.separatorChar) + ".java");
+  }
+
+  /**
+   * Returns the compilation unit of the top-level type with the given name, parsing its source file
+   * if the compilation unit is not in the cache.
+   *
+   * @param typeName the qualified name of a top-level type
+   * @return the compilation unit of {@code typeName}
+   * @throws FileNotFoundException if the source file of {@code typeName} does not exist
+   */
+  public CompilationUnit getCompilationUnit(String typeName) throws FileNotFoundException {
+    return getCompilationUnit(typeName, false);
+  }
+
+  /**
+   * Returns the compilation unit of the top-level type with the given name, parsing its source file
+   * if the compilation unit is not in the cache.
+   *
+   * @param typeName the qualified name of a top-level type
+   * @param skipBodies true if the bodies of methods, constructors, and initializers can be left out
+   *     of the compilation unit, false if the whole source file must be parsed
+   * @return the compilation unit of {@code typeName}
+   * @throws FileNotFoundException if the source file of {@code typeName} does not exist
+   */
+  public CompilationUnit getCompilationUnit(String typeName, boolean skipBodies)
+      throws FileNotFoundException {
+    final Path sourceFile = getSourceFile(typeName);
+    final Map.Entry<Path, Boolean> key = new SimpleImmutableEntry<>(sourceFile, skipBodies);
+    CompilationUnit cu = UNITS.get(key);
+    if (cu == null) {
+      // Files are parsed without holding the lock, so that threads parse different files in
+      // parallel. Threads parsing the same file at the same time get different compilation units.
+      cu =
+          skipBodies ? BodySkippingParser.parse(sourceFile) : JavaParser.parse(sourceFile.toFile());
+      UNITS.put(key, cu);
+    }
+    return cu;
+  }
+
+  /**
+   * Returns the qualified names of the top-level types declared in the given package, i.e., the
+   * types named after the Java source files in the folder of the package. The names are in the
+   * order in which the file system lists the files.
+   *
+   * @param packageName the name of a package, empty for the default package
+   * @return the qualified names of the types in {@code packageName}, an empty list if the package
+   *     does not exist
+   */
+  public List<String> getTypesInPackage(String packageName) {
+    return typesByPackage.computeIfAbsent(packageName, this::listTypes);
+  }
+
+  /**
+   * Lists the qualified names of the top-level types declared in the given package.
+   *
+   * @param packageName the name of a package, empty for the default package
+   * @return the qualified names of the types in {@code packageName}
+   */
+  private List<String> listTypes(String packageName) {
+    final File folder = root.resolve(packageName.replace('.', File.separatorChar)).toFile();
+    final File[] files = folder.listFiles();
+    final List<String> types = new ArrayList<>();
+    if (files == null) {
+      return Collections.emptyList();
+    }
+    for (File file : files) {
+      final String fileName = file.getName();
+      // "package-info" and "module-info" files do not declare types.
+      if (fileName.endsWith(".java") && !fileName.contains("-") && file.isFile()) {
+        final String typeName = fileName.substring(0, fileName.length() - ".java".length());
+        types.add(packageName.isEmpty() ? typeName : packageName + "." + typeName);
+      }
+    }
+    return Collections.unmodifiableList(types);
+  }
+}
@@ -2,7 +2,6 @@ package org.toradocu.translator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -97,20 +96,25 @@ public abstract class CodeElement<T> implements Comparable<CodeElement<?>> {
   protected abstract String buildJavaExpression();
 
   /**
-   * Returns the edit distance between this code element and the given string. The returned distance
-   * is the minimum distance calculated for all the identifiers of this code element.
-   * Integer.MAX_VALUE is returned if this code element has no identifiers.
+   * Returns the edit distance between this code element and the given string, if it is at most
+   * {@code maxDistance}. The returned distance is the minimum distance calculated for all the
+   * identifiers of this code element. Integer.MAX_VALUE is returned if this code element has no
+   * identifiers or if the distance is greater than {@code maxDistance}.
    *
    * @param s the string to get the edit distance from
+   * @param maxDistance the maximum distance of interest
    * @return the minimum edit distance between the given string and the identifiers of this code
-   *     element, or Integer.MAX_VALUE if this code element has no identifiers
+   *     element, or Integer.MAX_VALUE if this code element has no identifiers or the distance is
+   *     greater than {@code maxDistance}
    */
-  int getEditDistanceFrom(String s) {
-    return identifiers
-        .stream()
-        .map(identifier -> Distance.editDistance(identifier, s))
-        .min(Comparator.naturalOrder())
-        .orElse(Integer.MAX_VALUE);
+  int getEditDistanceFrom(String s, int maxDistance) {
+    int minDistance = Integer.MAX_VALUE;
+    for (String identifier : identifiers) {
+      final int distance =
+          Distance.editDistanceAtMost(identifier, s, Math.min(minDistance, maxDistance));
+      minDistance = Math.min(minDistance, distance);
+    }
+    return minDistance;
   }
 
   /**
@@ -0,0 +1,227 @@
+package org.toradocu.translator;
+
+import static java.util.stream.Collectors.toList;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.toradocu.conf.Configuration;
+import org.toradocu.util.Caches;
+import org.toradocu.util.IdentifierIndex;
+
+/**
+ * Index of the code elements of a class that do not depend on the documented executable under
+ * analysis: the class itself, its public fields and methods, and its boolean members. An index is
+ * built through reflection and then shared (code elements in the index are never modified after
+ * their creation) as long as it stays in a bounded cache. The identifiers of the class, field, and
+ * method code elements are also indexed to quickly find the ones similar to a given string.
+ */
+final class CodeElementIndex {
+
+  /** Maximum number of indexes kept in memory. */
+  static final int MAX_CACHED_INDEXES = 128;
+
+  /**
+   * Indexes built so far, least recently used first. Indexes are requested for the types of
+   * arbitrary parameters, hence the bound: each index holds its class, and therefore its class
+   * loader. Accessed concurrently when classes are translated in parallel.
+   */
+  private static final Map<Class<?>, CodeElementIndex> indexes =
+      Caches.lruCache(MAX_CACHED_INDEXES);
+
+  /** Code element of the indexed class. */
+  private final ClassCodeElement classCodeElement;
+  /** Public fields of the indexed class, with the receiver object as receiver. */
+  private final List<FieldCodeElement> fields;
+  /** Types of the public fields of the indexed class. */
+  private final List<Class<?>> fieldTypes;
+  /** Public methods of the indexed class, in the order returned by {@code Class#getMethods()}. */
+  private final List<Method> methods;
+  /** Parameter types of each method in {@code methods}. */
+  private final List<List<Class<?>>> methodParameterTypes;
+  /**
+   * Code element of each method in {@code methods}: a {@code StaticMethodCodeElement} for static
+   * methods, a {@code MethodCodeElement} with the receiver object as receiver otherwise.
+   */
+  private final List<CodeElement<?>> methodCodeElements;
+  /** Public boolean fields of the indexed class, sorted by name. */
+  private final List<Field> booleanFields;
+  /** Public boolean methods of the indexed class, sorted by name. */
+  private final List<Method> booleanMethods;
+  /** Public static boolean methods of the indexed class that take at most one parameter. */
+  private final List<Method> staticBooleanMethods;
+  /** Class, field, and method code elements of this index. */
+  private final Set<CodeElement<?>> indexedCodeElements =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+  /** Identifiers of the code elements in {@code indexedCodeElements}. */
+  private final IdentifierIndex<CodeElement<?>> identifierIndex = new IdentifierIndex<>();
+
+  /**
+   * Builds the index of the given class.
+   *
+   * @param aClass the class to index
+   */
+  private CodeElementIndex(Class<?> aClass) {
+    classCodeElement = new ClassCodeElement(aClass);
+
+    final List<Field> allFields = Arrays.asList(aClass.getFields());
+    fields =
+        allFields
+            .stream()
+            .map(field -> new FieldCodeElement(Configuration.RECEIVER, field))
+            .collect(toList());
+    fieldTypes = allFields.stream().map(Field::getType).collect(toList());
+
+    methods = Arrays.asList(aClass.getMethods());
+    methodParameterTypes = new ArrayList<>(methods.size());
+    methodCodeElements = new ArrayList<>(methods.size());
+    staticBooleanMethods = new ArrayList<>();
+    for (Method method : methods) {
+      methodParameterTypes.add(Arrays.asList(method.getParameterTypes()));
+      if (Modifier.isStatic(method.getModifiers())) {
+        methodCodeElements.add(new StaticMethodCodeElement(method));
+        if (method.getParameterCount() < 2 && isBoolean(method.getReturnType())) {
+          staticBooleanMethods.add(method);
+        }
+      } else {
+        methodCodeElements.add(new MethodCodeElement(Configuration.RECEIVER, method));
+      }
+    }
+
+    // Important: Sort members to make result deterministic!
+    final Comparator<Member> byName = Comparator.comparing(Member::getName);
+    booleanFields =
+        allFields
+            .stream()
+            .sorted(byName)
+            .filter(field -> isBoolean(field.getType()))
+            .collect(toList());
+    booleanMethods =
+        methods
+            .stream()
+            .sorted(byName)
+            .filter(method -> isBoolean(method.getReturnType()))
+            .collect(toList());
+
+    indexedCodeElements.add(classCodeElement);
+    indexedCodeElements.addAll(fields);
+    indexedCodeElements.addAll(methodCodeElements);
+    for (CodeElement<?> codeElement : indexedCodeElements) {
+      for (String identifier : codeElement.getIdentifiers()) {
+        identifierIndex.add(identifier, codeElement);
+      }
+    }
+  }
+
+  /**
+   * Returns the index of the given class, building it if needed.
+   *
+   * @param aClass the class whose index to return
+   * @return the index of {@code aClass}
+   */
+  static CodeElementIndex of(Class<?> aClass) {
+    CodeElementIndex index = indexes.get(aClass);
+    if (index == null) {
+      // Indexes are built without holding the lock, so that threads index different classes in
+      // parallel. Threads indexing the same class at the same time get different indexes.
+      index = new CodeElementIndex(aClass);
+      indexes.put(aClass, index);
+    }
+    return index;
+  }
+
+  /**
+   * Removes the index of the given class, if any.
+   *
+   * @param aClass the class whose index to remove
+   */
+  static void evict(Class<?> aClass) {
+    indexes.remove(aClass);
+  }
+
+  /**
+   * Returns true if the given code element is the class code element or one of the field or method
+   * code elements of this index. Code elements are compared by identity.
+   *
+   * @param codeElement the code element to look for
+   * @return true if {@code codeElement} is a class, field, or method code element of this index
+   */
+  boolean contains(CodeElement<?> codeElement) {
+    return indexedCodeElements.contains(codeElement);
+  }
+
+  /**
+   * Returns the class, field, and method code elements of this index whose edit distance from
+   * {@code s} is at most {@code maxDistance}, mapped to their distance from {@code s}.
+   *
+   * @param s the string to match code elements against
+   * @param maxDistance the maximum edit distance of interest
+   * @return the code elements within {@code maxDistance} of {@code s} (compared by identity) and
+   *     their distance, computed as in {@code CodeElement#getEditDistanceFrom(String, int)}
+   */
+  Map<CodeElement<?>, Integer> findSimilar(String s, int maxDistance) {
+    return identifierIndex.search(s, maxDistance);
+  }
+
+  private static boolean isBoolean(Class<?> type) {
+    return type.equals(Boolean.class) || type.equals(boolean.class);
+  }
+
+  ClassCodeElement getClassCodeElement() {
+    return classCodeElement;
+  }
+
+  List<FieldCodeElement> getFields() {
+    return Collections.unmodifiableList(fields);
+  }
+
+  List<Class<?>> getFieldTypes() {
+    return Collections.unmodifiableList(fieldTypes);
+  }
+
+  List<Method> getMethods() {
+    return Collections.unmodifiableList(methods);
+  }
+
+  /**
+   * Returns the parameter types of the method at position {@code index} in {@code getMethods()}.
+   *
+   * @param index the position of a method in {@code getMethods()}
+   * @return the parameter types of the method
+   */
+  List<Class<?>> getMethodParameterTypes(int index) {
+    return Collections.unmodifiableList(methodParameterTypes.get(index));
+  }
+
+  /**
+   * Returns the code element of the method at position {@code index} in {@code getMethods()}.
+   *
+   * @param index the position of a method in {@code getMethods()}
+   * @return a {@code StaticMethodCodeElement} if the method is static, a {@code MethodCodeElement}
+   *     having the receiver object as receiver otherwise
+   */
+  CodeElement<?> getMethodCodeElement(int index) {
+    return methodCodeElements.get(index);
+  }
+
+  List<Field> getBooleanFields() {
+    return Collections.unmodifiableList(booleanFields);
+  }
+
+  List<Method> getBooleanMethods() {
+    return Collections.unmodifiableList(booleanMethods);
+  }
+
+  List<Method> getStaticBooleanMethods() {
+    return Collections.unmodifiableList(staticBooleanMethods);
+  }
+}
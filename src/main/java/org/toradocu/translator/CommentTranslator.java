@@ -3,9 +3,12 @@ package org.toradocu.translator;
 import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
@@ -16,6 +19,9 @@ import org.toradocu.extractor.ReturnTag;
 import org.toradocu.extractor.ThrowsTag;
 import org.toradocu.translator.preprocess.PreprocessorFactory;
 import org.toradocu.util.Checks;
+import org.toradocu.util.ComplianceChecks;
+import org.toradocu.util.ComplianceChecks.SpecConditions;
+import randoop.condition.specification.Guard;
 import randoop.condition.specification.Identifiers;
 import randoop.condition.specification.Operation;
 import randoop.condition.specification.OperationSpecification;
@@ -70,7 +76,10 @@ public class CommentTranslator {
   }
 
   /**
-   * Creates the specifications from the comments of the given executable members.
+   * Creates the specifications from the comments of the given executable members. If parallel
+   * translation is enabled (see {@code Configuration#isParallelTranslationEnabled()}), members and
+   * their tags are translated concurrently; the returned map has the same order as {@code members}
+   * in any case.
    *
    * @param members the executable members whose comments have to be translated into specifications
    * @return a map that associates each executable member (key) with its operation specification
@@ -78,37 +87,144 @@ public class CommentTranslator {
    */
   public static Map<DocumentedExecutable, OperationSpecification> createSpecifications(
       List<DocumentedExecutable> members) {
+    final boolean parallel = Configuration.INSTANCE.isParallelTranslationEnabled();
+    final Stream<DocumentedExecutable> memberStream =
+        parallel ? members.parallelStream() : members.stream();
+    final List<OperationSpecification> memberSpecs =
+        memberStream.map(member -> createSpecification(member, parallel)).collect(toList());
+
     Map<DocumentedExecutable, OperationSpecification> specs = new LinkedHashMap<>();
-    for (DocumentedExecutable member : members) {
-      Operation operation = Operation.getOperation(member.getExecutable());
-      List<String> paramNames =
-          member.getParameters().stream().map(DocumentedParameter::getName).collect(toList());
-      Identifiers identifiers =
-          new Identifiers(paramNames, Configuration.RECEIVER, Configuration.RETURN_VALUE);
-      OperationSpecification spec = new OperationSpecification(operation, identifiers);
+    for (int i = 0; i < members.size(); i++) {
+      specs.put(members.get(i), memberSpecs.get(i));
+    }
+    if (Configuration.INSTANCE.isBatchComplianceCheckEnabled()) {
+      discardNonCompilableSpecs(specs);
+    }
+    return specs;
+  }
 
-      List<PreSpecification> preSpecifications = new ArrayList<>();
-      for (ParamTag paramTag : member.paramTags()) {
-        preSpecifications.add(CommentTranslator.translate(paramTag, member));
+  /**
+   * Checks the compliance of all the given specifications with a single compiler invocation (see
+   * {@code ComplianceChecks#areSpecsCompilable}), and discards the specifications that are not
+   * compilable: the guards of non-compilable pre-specifications and throws-specifications are
+   * emptied, and non-compilable post-specifications are removed, as the translators do when
+   * compliance is checked during the translation.
+   *
+   * @param specs the operation specifications to check, which are replaced by the operation
+   *     specifications without the non-compilable specifications
+   */
+  private static void discardNonCompilableSpecs(
+      Map<DocumentedExecutable, OperationSpecification> specs) {
+    final List<SpecConditions> conditions = new ArrayList<>();
+    for (Map.Entry<DocumentedExecutable, OperationSpecification> entry : specs.entrySet()) {
+      final DocumentedExecutable member = entry.getKey();
+      final OperationSpecification spec = entry.getValue();
+      for (PreSpecification preSpec : spec.getPreSpecifications()) {
+        if (!preSpec.getGuard().getConditionText().isEmpty()) {
+          conditions.add(new SpecConditions(member, preSpec.getGuard()));
+        }
+      }
+      for (ThrowsSpecification throwsSpec : spec.getThrowsSpecifications()) {
+        if (!throwsSpec.getGuard().getConditionText().isEmpty()) {
+          conditions.add(new SpecConditions(member, throwsSpec.getGuard()));
+        }
+      }
+      for (PostSpecification postSpec : spec.getPostSpecifications()) {
+        conditions.add(new SpecConditions(member, postSpec.getGuard(), postSpec.getProperty()));
       }
-      spec.addParamSpecifications(preSpecifications);
+    }
+    // Verdicts are consumed in the same order as the conditions were collected.
+    final Iterator<Boolean> compilable = ComplianceChecks.areSpecsCompilable(conditions).iterator();
 
+    for (Map.Entry<DocumentedExecutable, OperationSpecification> entry : specs.entrySet()) {
+      final OperationSpecification spec = entry.getValue();
+      List<PreSpecification> preSpecifications = new ArrayList<>();
+      for (PreSpecification preSpec : spec.getPreSpecifications()) {
+        final Guard guard = preSpec.getGuard();
+        if (guard.getConditionText().isEmpty() || compilable.next()) {
+          preSpecifications.add(preSpec);
+        } else {
+          preSpecifications.add(
+              new PreSpecification(
+                  preSpec.getDescription(), new Guard(guard.getDescription(), "")));
+        }
+      }
       List<ThrowsSpecification> throwsSpecifications = new ArrayList<>();
-      for (ThrowsTag throwsTag : member.throwsTags()) {
-        throwsSpecifications.add(CommentTranslator.translate(throwsTag, member));
+      for (ThrowsSpecification throwsSpec : spec.getThrowsSpecifications()) {
+        final Guard guard = throwsSpec.getGuard();
+        if (guard.getConditionText().isEmpty() || compilable.next()) {
+          throwsSpecifications.add(throwsSpec);
+        } else {
+          throwsSpecifications.add(
+              new ThrowsSpecification(
+                  throwsSpec.getDescription(),
+                  new Guard(guard.getDescription(), ""),
+                  throwsSpec.getExceptionTypeName()));
+        }
       }
-      spec.addThrowsSpecifications(throwsSpecifications);
-
       List<PostSpecification> postSpecifications = new ArrayList<>();
-      ReturnTag returnTag = member.returnTag();
-      if (returnTag != null) {
-        postSpecifications.addAll(CommentTranslator.translate(returnTag, member));
+      for (PostSpecification postSpec : spec.getPostSpecifications()) {
+        if (compilable.next()) {
+          postSpecifications.add(postSpec);
+        }
       }
-      spec.addReturnSpecifications(postSpecifications);
+      entry.setValue(
+          new OperationSpecification(
+              spec.getOperation(),
+              spec.getIdentifiers(),
+              throwsSpecifications,
+              postSpecifications,
+              preSpecifications));
+    }
+  }
+
+  /**
+   * Creates the specification of the given executable member from its comments.
+   *
+   * <p>@param comments are always translated one after the other, in order: translating a comment
+   * reads the @param comments of the same member, which are modified by preprocessing. Translations
+   * of @throws and @return comments only read their own comment and the (already translated) @param
+   * comments, so they are executed concurrently when {@code parallel} is true.
+   *
+   * @param member the executable member whose comments have to be translated
+   * @param parallel whether @throws and @return comments should be translated concurrently
+   * @return the operation specification of {@code member}
+   */
+  private static OperationSpecification createSpecification(
+      DocumentedExecutable member, boolean parallel) {
+    Operation operation = Operation.getOperation(member.getExecutable());
+    List<String> paramNames =
+        member.getParameters().stream().map(DocumentedParameter::getName).collect(toList());
+    Identifiers identifiers =
+        new Identifiers(paramNames, Configuration.RECEIVER, Configuration.RETURN_VALUE);
+    OperationSpecification spec = new OperationSpecification(operation, identifiers);
 
-      specs.put(member, spec);
+    List<PreSpecification> preSpecifications = new ArrayList<>();
+    for (ParamTag paramTag : member.paramTags()) {
+      preSpecifications.add(CommentTranslator.translate(paramTag, member));
     }
-    return specs;
+    spec.addParamSpecifications(preSpecifications);
+
+    ReturnTag returnTag = member.returnTag();
+    ForkJoinTask<List<PostSpecification>> returnTranslation = null;
+    if (parallel && returnTag != null) {
+      returnTranslation = ForkJoinTask.adapt(() -> translate(returnTag, member)).fork();
+    }
+
+    final Stream<ThrowsTag> throwsTags =
+        parallel ? member.throwsTags().parallelStream() : member.throwsTags().stream();
+    List<ThrowsSpecification> throwsSpecifications =
+        throwsTags.map(throwsTag -> translate(throwsTag, member)).collect(toList());
+    spec.addThrowsSpecifications(throwsSpecifications);
+
+    List<PostSpecification> postSpecifications = new ArrayList<>();
+    if (returnTranslation != null) {
+      postSpecifications.addAll(returnTranslation.join());
+    } else if (returnTag != null) {
+      postSpecifications.addAll(CommentTranslator.translate(returnTag, member));
+    }
+    spec.addReturnSpecifications(postSpecifications);
+    return spec;
   }
 
   /**
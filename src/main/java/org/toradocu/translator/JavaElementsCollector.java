@@ -4,12 +4,9 @@ import static java.util.stream.Collectors.toList;
 
 import edu.stanford.nlp.semgraph.SemanticGraph;
 import java.lang.reflect.Executable;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.*;
-import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
@@ -23,79 +20,83 @@ public class JavaElementsCollector {
 
   /**
    * Collects all the Java code elements that can be used for the condition translation. The code
-   * elements are collected using reflection starting from the given method.
+   * elements are collected using reflection starting from the given method. Code elements of the
+   * containing class are collected only once per class and then reused.
    *
    * @param documentedExecutable the method from which to start to collect the code elements
    * @return the collected code elements
    */
   public static Set<CodeElement<?>> collect(DocumentedExecutable documentedExecutable) {
     Set<CodeElement<?>> collectedElements = new LinkedHashSet<>();
-    final Class<?> containingClass = documentedExecutable.getDeclaringClass();
+    final CodeElementIndex index = CodeElementIndex.of(documentedExecutable.getDeclaringClass());
 
     // Add the containing class.
-    collectedElements.add(containingClassOf(documentedExecutable));
+    collectedElements.add(index.getClassCodeElement());
 
     // Add the parameters of the executable member.
     collectedElements.addAll(parametersOf(documentedExecutable));
 
     // Add fields of the containing class.
-    collectedElements.addAll(fieldsOf(containingClass));
+    collectedElements.addAll(index.getFields());
 
     // Add methods of the containing class (all but the method corresponding to
     // documentedExecutable).
-    collectedElements.addAll(methodsOf(containingClass, documentedExecutable));
+    collectedElements.addAll(methodsOf(index, documentedExecutable));
 
     return collectedElements;
   }
 
+  /**
+   * Removes the cached code elements of the classes declaring the given methods. Cached code
+   * elements are never needed once the analysis of a class is over.
+   *
+   * @param methods the methods whose declaring classes' code elements must be removed
+   */
+  public static void clearCache(Collection<DocumentedExecutable> methods) {
+    methods
+        .stream()
+        .map(DocumentedExecutable::getDeclaringClass)
+        .distinct()
+        .forEach(CodeElementIndex::evict);
+  }
+
   // Executable member is ignored and not included in the returned list of methods.
   private static List<CodeElement<?>> methodsOf(
-      Class<?> containingClass, DocumentedExecutable documentedExecutable) {
-    final List<Method> methods = new ArrayList<>();
-    Collections.addAll(methods, containingClass.getMethods());
+      CodeElementIndex index, DocumentedExecutable documentedExecutable) {
     final Executable executable = documentedExecutable.getExecutable();
-    if (executable instanceof Method) {
-      Method method = (Method) executable;
-      methods.remove(method);
-    }
-    List<Class<?>> inScopeTypes = collectInScopeTypes(documentedExecutable);
-    methods.removeIf(method -> !invokableWithParameters(method, inScopeTypes));
+    final List<Class<?>> inScopeTypes = collectInScopeTypes(index, documentedExecutable);
+    final List<Method> methods = index.getMethods();
 
     List<CodeElement<?>> codeElements = new ArrayList<>();
-    for (Method method : methods) {
-      if (Modifier.isStatic(method.getModifiers())) {
-        codeElements.add(new StaticMethodCodeElement(method));
-      } else if (!documentedExecutable.isConstructor()) {
-        codeElements.add(new MethodCodeElement(Configuration.RECEIVER, method));
+    for (int i = 0; i < methods.size(); i++) {
+      if (methods.get(i).equals(executable)
+          || !inScopeTypes.containsAll(index.getMethodParameterTypes(i))) {
+        continue;
+      }
+      final CodeElement<?> codeElement = index.getMethodCodeElement(i);
+      if (codeElement instanceof StaticMethodCodeElement || !documentedExecutable.isConstructor()) {
+        codeElements.add(codeElement);
       }
     }
     return codeElements;
   }
 
-  private static List<Class<?>> collectInScopeTypes(DocumentedExecutable documentedExecutable) {
+  private static List<Class<?>> collectInScopeTypes(
+      CodeElementIndex index, DocumentedExecutable documentedExecutable) {
     final List<Class<?>> availableTypes = new ArrayList<>();
-    final Class<?> containingClass = documentedExecutable.getDeclaringClass();
 
     // Add parameters of the executable member.
     Collections.addAll(availableTypes, documentedExecutable.getExecutable().getParameterTypes());
 
     // Add target class.
-    availableTypes.add(containingClass);
+    availableTypes.add(documentedExecutable.getDeclaringClass());
 
     // Add target class' fields.
-    for (Field field : containingClass.getFields()) {
-      availableTypes.add(field.getType());
-    }
+    availableTypes.addAll(index.getFieldTypes());
 
     return availableTypes;
   }
 
-  private static List<FieldCodeElement> fieldsOf(Class<?> aClass) {
-    return Arrays.stream(aClass.getFields())
-        .map(field -> new FieldCodeElement(Configuration.RECEIVER, field))
-        .collect(toList());
-  }
-
   private static List<ParameterCodeElement> parametersOf(
       DocumentedExecutable documentedExecutable) {
     List<ParameterCodeElement> paramCodeElements = new ArrayList<>();
@@ -142,10 +143,6 @@ public class JavaElementsCollector {
     return paramCodeElements;
   }
 
-  private static ClassCodeElement containingClassOf(DocumentedExecutable documentedExecutable) {
-    return new ClassCodeElement(documentedExecutable.getDeclaringClass());
-  }
-
   /**
    * For the parameter in input, find its param tag in the method's Javadoc and produce the
    * SemanticGraphs of the comment. For every graph, keep the root as identifier.
@@ -180,10 +177,4 @@ public class JavaElementsCollector {
     }
     return ids;
   }
-
-  private static boolean invokableWithParameters(Method method, List<Class<?>> inScopeTypes) {
-    final List<? extends Class<?>> methodParamTypes =
-        Arrays.stream(method.getParameters()).map(Parameter::getType).collect(toList());
-    return inScopeTypes.containsAll(methodParamTypes);
-  }
 }
@@ -1,9 +1,7 @@
 package org.toradocu.translator;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Member;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 import java.util.*;
@@ -25,6 +23,10 @@ class Matcher {
    */
   private final int editDistanceThreshold;
 
+  /** Semantic matcher used when the syntactic match fails. It is shared by all the matchers. */
+  private static final SemanticMatcher semanticMatcher =
+      new SemanticMatcher(true, (float) 0.2, (float) 3.11);
+
   public Matcher() {
     this.editDistanceThreshold = Configuration.INSTANCE.getDistanceThreshold();
   }
@@ -58,7 +60,7 @@ class Matcher {
     subject = subject.trim();
 
     // Filter and return the CodeElements whose name is similar to subject.
-    return filterMatchingCodeElements(subject, codeElements);
+    return filterMatchingCodeElements(subject, codeElements, method);
   }
 
   /**
@@ -80,10 +82,11 @@ class Matcher {
    *
    * @param filter the string to match {@code CodeElement}s against
    * @param codeElements the set of {@code CodeElement}s to filter
+   * @param method the {@code DocumentedExecutable} whose code elements are filtered
    * @return a set of {@code CodeElement}s that match the given string
    */
   private Set<CodeElement<?>> filterMatchingCodeElements(
-      String filter, Set<CodeElement<?>> codeElements) {
+      String filter, Set<CodeElement<?>> codeElements, DocumentedExecutable method) {
     Set<CodeElement<?>> minCodeElements = new LinkedHashSet<>();
     // If the word to match is a one-letter word (or empty string), we look for an exact match.
     int minDistance = 0;
@@ -91,9 +94,19 @@ class Matcher {
     if (filter.length() > 1) {
       minDistance = editDistanceThreshold;
     }
-    // Returns the CodeElement(s) with the smallest distance.
+    // Distances of the class, field, and method code elements come from the identifier index of
+    // the class. Distances of the other code elements (e.g., parameters) are computed one by one.
+    final CodeElementIndex index = CodeElementIndex.of(method.getDeclaringClass());
+    final Map<CodeElement<?>, Integer> indexedDistances = index.findSimilar(filter, minDistance);
+    // Returns the CodeElement(s) with the smallest distance. Distances greater than the current
+    // minimum are not computed entirely.
     for (CodeElement<?> codeElement : codeElements) {
-      int distance = codeElement.getEditDistanceFrom(filter);
+      int distance;
+      if (index.contains(codeElement)) {
+        distance = indexedDistances.getOrDefault(codeElement, Integer.MAX_VALUE);
+      } else {
+        distance = codeElement.getEditDistanceFrom(filter, minDistance);
+      }
       if (distance < minDistance) {
         minDistance = distance;
         minCodeElements.clear();
@@ -276,8 +289,6 @@ class Matcher {
     if (match == null && SemanticMatcher.isEnabled()) {
       // When the syntactic match fails, try semantic if enabled
       try {
-        SemanticMatcher semanticMatcher = new SemanticMatcher(true, (float) 0.2, (float) 3.11);
-
         // it is important to provide a fixed order since this point, to prevent method with same
         // score
         // being put in map in a different order every execution
@@ -289,10 +300,6 @@ class Matcher {
         if (semanticMethodMatches != null && !semanticMethodMatches.isEmpty()) {
           List<CodeElement<?>> semanticMethodList =
               new ArrayList<CodeElement<?>>(semanticMethodMatches.keySet());
-
-          if (semanticMethodList.size() > 5) {
-            semanticMethodList = semanticMethodList.subList(0, 4);
-          }
           match = findBestMethodMatch(method, predicate, semanticMethodList);
         }
       } catch (Exception e) {
@@ -313,7 +320,7 @@ class Matcher {
   private Match syntacticMatch(
       String predicate, Set<CodeElement<?>> codeElements, DocumentedExecutable method) {
     List<CodeElement<?>> sortedMethodList;
-    sortedMethodList = new ArrayList<>(filterMatchingCodeElements(predicate, codeElements));
+    sortedMethodList = new ArrayList<>(filterMatchingCodeElements(predicate, codeElements, method));
     if (!sortedMethodList.isEmpty())
       Collections.sort(sortedMethodList, new JavaExpressionComparator());
     if (sortedMethodList.isEmpty()) {
@@ -460,19 +467,14 @@ class Matcher {
 
     // Add methods in containing class as code elements.
     methodCollection:
-    for (Method classMethod : targetClass.getMethods()) {
-      if (Modifier.isStatic(classMethod.getModifiers())
-          && classMethod.getParameters().length < 2
-          && (classMethod.getReturnType().equals(Boolean.class)
-              || classMethod.getReturnType().equals(boolean.class))) {
-        for (java.lang.reflect.Parameter par : classMethod.getParameters()) {
-          if (!parameter.getJavaCodeElement().getType().equals(par.getType())) {
-            continue methodCollection;
-          }
+    for (Method classMethod : CodeElementIndex.of(targetClass).getStaticBooleanMethods()) {
+      for (java.lang.reflect.Parameter par : classMethod.getParameters()) {
+        if (!parameter.getJavaCodeElement().getType().equals(par.getType())) {
+          continue methodCollection;
         }
-        collectedElements.add(
-            new StaticMethodCodeElement(classMethod, parameter.getJavaExpression()));
       }
+      collectedElements.add(
+          new StaticMethodCodeElement(classMethod, parameter.getJavaExpression()));
     }
 
     return collectedElements;
@@ -500,22 +502,13 @@ class Matcher {
       return result;
     }
 
-    // Important: Sort members to make result deterministic!
-    Comparator<Member> byName = Comparator.comparing(Member::getName);
-
-    for (Field field :
-        Arrays.stream(type.getFields()).sorted(byName).collect(Collectors.toList())) {
-      if (field.getType().equals(Boolean.class) || field.getType().equals(boolean.class)) {
-        result.add(new FieldCodeElement(receiver.getJavaExpression(), field));
-      }
+    // Boolean members in the index are sorted by name, to make result deterministic.
+    final CodeElementIndex index = CodeElementIndex.of(type);
+    for (Field field : index.getBooleanFields()) {
+      result.add(new FieldCodeElement(receiver.getJavaExpression(), field));
     }
-
-    for (Method method :
-        Arrays.stream(type.getMethods()).sorted(byName).collect(Collectors.toList())) {
-      if (method.getReturnType().equals(Boolean.class)
-          || method.getReturnType().equals(boolean.class)) {
-        result.add(new MethodCodeElement(receiver.getJavaExpression(), method));
-      }
+    for (Method method : index.getBooleanMethods()) {
+      result.add(new MethodCodeElement(receiver.getJavaExpression(), method));
     }
 
     return result;
@@ -2,6 +2,7 @@ package org.toradocu.translator;
 
 import static org.toradocu.util.ComplianceChecks.isSpecCompilable;
 
+import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.ParamTag;
 import randoop.condition.specification.Guard;
@@ -17,7 +18,11 @@ public class ParamTranslator {
 
     final Guard guard = new Guard(tag.getComment().getText(), commentTranslation);
 
-    if (commentTranslation.isEmpty() || !isSpecCompilable(excMember, guard)) {
+    // In batch mode, compliance is checked once the whole class is translated (see
+    // CommentTranslator#createSpecifications).
+    if (commentTranslation.isEmpty()
+        || (!Configuration.INSTANCE.isBatchComplianceCheckEnabled()
+            && !isSpecCompilable(excMember, guard))) {
       return new PreSpecification(tag.toString(), new Guard(tag.getComment().getText(), ""));
     }
 
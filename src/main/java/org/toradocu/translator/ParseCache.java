@@ -0,0 +1,361 @@
+package org.toradocu.translator;
+
+import edu.stanford.nlp.international.Language;
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.ling.IndexedWord;
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import edu.stanford.nlp.semgraph.SemanticGraphEdge;
+import edu.stanford.nlp.trees.GrammaticalRelation;
+import edu.stanford.nlp.trees.UniversalEnglishGrammaticalRelations;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.util.CacheFile;
+import org.toradocu.util.Caches;
+
+/**
+ * Persistent cache of the semantic graphs produced by the Stanford parser. The cache maps the
+ * tagged words of a sentence, i.e. the exact input of the parser after inequalities have been
+ * replaced by placeholders and code elements have been tagged, to the serialized semantic graph of
+ * the sentence. Sentences that recur across classes and across runs are thus parsed only once.
+ *
+ * <p>The cache is stored in a single append-only file that starts with the version of the cache and
+ * continues with one entry per sentence (SHA-256 digest of the tagged words, length of the encoded
+ * graph, encoded graph). The file is memory-mapped when the cache is opened. If its version differs
+ * from the current one (e.g., because Toradocu or the parser model have been updated) the file is
+ * replaced by an empty one, and an incomplete entry at the end of the file (e.g., because a
+ * previous run has been killed) is discarded.
+ *
+ * <p>Several processes can share the same cache file, which is accessed through a {@code
+ * CacheFile}.
+ */
+final class ParseCache {
+
+  private static final Logger log = LoggerFactory.getLogger(ParseCache.class);
+
+  /**
+   * Version of the cache format and of the way sentences are parsed. Increase it whenever either of
+   * them changes, to invalidate existing caches.
+   */
+  private static final int FORMAT_VERSION = 1;
+
+  /** Name of the cache file. */
+  private static final String FILE_NAME = "stanford-parses.bin";
+
+  /** Length in bytes of the SHA-256 digest of the tagged words of a sentence. */
+  private static final int KEY_LENGTH = 32;
+
+  /** Types of the annotation values of encoded semantic graphs. */
+  private static final byte STRING_VALUE = 0;
+
+  private static final byte INTEGER_VALUE = 1;
+
+  /** The cache file. */
+  private CacheFile file;
+
+  /** Encoded semantic graphs by (Base64-encoded) digest of the tagged words. */
+  private final Map<String, ByteBuffer> entries = new ConcurrentHashMap<>();
+
+  private ParseCache() {}
+
+  /**
+   * Opens the cache in the given directory, creating it if needed.
+   *
+   * @param directory the directory of the cache file
+   * @param version the version of Toradocu and of the parser model. A cache file with a different
+   *     version is emptied
+   * @return the cache in {@code directory}
+   * @throws IOException if an I/O error occurs while opening or reading the cache file
+   */
+  static ParseCache open(File directory, String version) throws IOException {
+    final Path file = directory.toPath().resolve(FILE_NAME);
+    final byte[] versionBytes = (FORMAT_VERSION + " " + version).getBytes(StandardCharsets.UTF_8);
+    final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + versionBytes.length);
+    header.putInt(versionBytes.length).put(versionBytes);
+    final ParseCache cache = new ParseCache();
+    cache.file = CacheFile.open(file, header.array(), cache::readEntries);
+    log.info("Loaded {} cached parses from {}", cache.entries.size(), file);
+    return cache;
+  }
+
+  /**
+   * Returns the cached semantic graph of the sentence made of the given tagged words, or null if
+   * the cache does not contain it. Every call returns a new graph.
+   *
+   * @param words the tagged words of a sentence
+   * @return the semantic graph of the sentence, or null if it is not in the cache
+   */
+  SemanticGraph get(List<TaggedWord> words) {
+    final ByteBuffer entry = entries.get(keyOf(digestOf(words)));
+    if (entry == null) {
+      return null;
+    }
+    final ByteBuffer buffer = entry.duplicate();
+    final byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    try {
+      return decode(bytes);
+    } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+      log.warn("Unable to read a cached parse, the sentence will be parsed again", e);
+      return null;
+    }
+  }
+
+  /**
+   * Stores in the cache the semantic graph of the sentence made of the given tagged words.
+   *
+   * @param words the tagged words of a sentence
+   * @param graph the semantic graph of the sentence
+   */
+  void put(List<TaggedWord> words, SemanticGraph graph) {
+    final byte[] digest = digestOf(words);
+    final byte[] value;
+    try {
+      value = encode(graph);
+    } catch (IllegalArgumentException e) {
+      log.debug("Semantic graph not cached: " + e.getMessage());
+      return;
+    }
+    if (entries.putIfAbsent(keyOf(digest), ByteBuffer.wrap(value)) != null) {
+      return;
+    }
+
+    final ByteBuffer entry = ByteBuffer.allocate(KEY_LENGTH + Integer.BYTES + value.length);
+    entry.put(digest).putInt(value.length).put(value);
+    entry.flip();
+    try {
+      file.append(entry);
+    } catch (IOException e) {
+      log.warn("Unable to write to the parse cache", e);
+    }
+  }
+
+  /**
+   * Encodes the given semantic graph: the annotations of its vertices (taken from a table of
+   * annotation keys), the copy count of its vertices, its edges, and its roots.
+   *
+   * @param graph the semantic graph to encode
+   * @return the encoded semantic graph
+   * @throws IllegalArgumentException if {@code graph} contains annotations that are neither strings
+   *     nor integers, or relations that are not Universal Dependencies
+   */
+  private static byte[] encode(SemanticGraph graph) {
+    final List<IndexedWord> vertices = graph.vertexListSorted();
+    final Map<IndexedWord, Integer> vertexIndexes = new HashMap<>();
+    final List<Class<?>> keys = new ArrayList<>();
+    for (IndexedWord vertex : vertices) {
+      vertexIndexes.put(vertex, vertexIndexes.size());
+      for (Class<?> key : vertex.backingLabel().keySet()) {
+        if (!keys.contains(key)) {
+          keys.add(key);
+        }
+      }
+    }
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(keys.size());
+      for (Class<?> key : keys) {
+        out.writeUTF(key.getName());
+      }
+      out.writeInt(vertices.size());
+      for (IndexedWord vertex : vertices) {
+        final CoreLabel label = vertex.backingLabel();
+        out.writeInt(label.size());
+        for (Class<?> key : label.keySet()) {
+          out.writeInt(keys.indexOf(key));
+          final Object value = getAnnotation(label, key);
+          if (value instanceof String) {
+            out.writeByte(STRING_VALUE);
+            out.writeUTF((String) value);
+          } else if (value instanceof Integer) {
+            out.writeByte(INTEGER_VALUE);
+            out.writeInt((Integer) value);
+          } else {
+            throw new IllegalArgumentException("Unsupported annotation " + key.getName());
+          }
+        }
+        out.writeInt(vertex.copyCount());
+      }
+      out.writeInt(graph.edgeCount());
+      for (SemanticGraphEdge edge : graph.edgeIterable()) {
+        final GrammaticalRelation relation = edge.getRelation();
+        if (relation.getLanguage() != Language.UniversalEnglish) {
+          throw new IllegalArgumentException("Unsupported relation " + relation);
+        }
+        out.writeInt(vertexIndexes.get(edge.getGovernor()));
+        out.writeInt(vertexIndexes.get(edge.getDependent()));
+        out.writeUTF(relation.getShortName());
+        out.writeBoolean(relation.getSpecific() != null);
+        if (relation.getSpecific() != null) {
+          out.writeUTF(relation.getSpecific());
+        }
+        out.writeDouble(edge.getWeight());
+        out.writeBoolean(edge.isExtra());
+      }
+      final Collection<IndexedWord> roots = graph.getRoots();
+      out.writeInt(roots.size());
+      for (IndexedWord root : roots) {
+        out.writeInt(vertexIndexes.get(root));
+      }
+    } catch (IOException e) {
+      // Writing to a ByteArrayOutputStream never fails.
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes a semantic graph encoded by {@code encode}.
+   *
+   * @param bytes the encoded semantic graph
+   * @return the decoded semantic graph
+   * @throws IOException if {@code bytes} is not a valid encoded semantic graph
+   * @throws ReflectiveOperationException if an annotation key cannot be loaded
+   */
+  private static SemanticGraph decode(byte[] bytes)
+      throws IOException, ReflectiveOperationException {
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    final List<Class<?>> keys = new ArrayList<>();
+    for (int i = in.readInt(); i > 0; i--) {
+      keys.add(Class.forName(in.readUTF()));
+    }
+    final SemanticGraph graph = new SemanticGraph();
+    final List<IndexedWord> vertices = new ArrayList<>();
+    for (int i = in.readInt(); i > 0; i--) {
+      final CoreLabel label = new CoreLabel();
+      for (int j = in.readInt(); j > 0; j--) {
+        final Class<?> key = keys.get(in.readInt());
+        final Object value = in.readByte() == STRING_VALUE ? in.readUTF() : in.readInt();
+        setAnnotation(label, key, value);
+      }
+      final IndexedWord vertex = new IndexedWord(label);
+      vertex.setCopyCount(in.readInt());
+      graph.addVertex(vertex);
+      vertices.add(vertex);
+    }
+    for (int i = in.readInt(); i > 0; i--) {
+      final IndexedWord governor = vertices.get(in.readInt());
+      final IndexedWord dependent = vertices.get(in.readInt());
+      final String shortName = in.readUTF();
+      final String specific = in.readBoolean() ? in.readUTF() : null;
+      final double weight = in.readDouble();
+      final boolean extra = in.readBoolean();
+      graph.addEdge(governor, dependent, relationOf(shortName, specific), weight, extra);
+    }
+    final List<IndexedWord> roots = new ArrayList<>();
+    for (int i = in.readInt(); i > 0; i--) {
+      roots.add(vertices.get(in.readInt()));
+    }
+    graph.setRoots(roots);
+    return graph;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Object getAnnotation(CoreLabel label, Class<?> key) {
+    return label.get((Class) key);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static void setAnnotation(CoreLabel label, Class<?> key, Object value) {
+    label.set((Class) key, value);
+  }
+
+  /**
+   * Returns the Universal Dependencies relation with the given name, resolved as the Stanford
+   * parser does when it deserializes relations.
+   *
+   * @param shortName the short name of the relation
+   * @param specific the specific name of the relation, or null
+   * @return the relation with the given name
+   */
+  private static GrammaticalRelation relationOf(String shortName, String specific) {
+    final GrammaticalRelation relation =
+        UniversalEnglishGrammaticalRelations.valueOf(
+            specific == null ? shortName : shortName + ":" + specific);
+    if (relation != null) {
+      return relation;
+    }
+    switch (shortName) {
+      case "conj":
+        return UniversalEnglishGrammaticalRelations.getConj(specific);
+      case "nmod":
+        return UniversalEnglishGrammaticalRelations.getNmod(specific);
+      case "acl":
+        return UniversalEnglishGrammaticalRelations.getAcl(specific);
+      case "advcl":
+        return UniversalEnglishGrammaticalRelations.getAdvcl(specific);
+      default:
+        throw new IllegalArgumentException("Unknown relation " + shortName + ":" + specific);
+    }
+  }
+
+  /**
+   * Adds to {@code entries} the entries in the given buffer.
+   *
+   * @param buffer the entries of the cache file, which follow its header
+   * @return the position following the last complete entry in {@code buffer}
+   */
+  private int readEntries(ByteBuffer buffer) {
+    int end = buffer.position();
+    final byte[] key = new byte[KEY_LENGTH];
+    while (buffer.remaining() >= KEY_LENGTH + Integer.BYTES) {
+      buffer.get(key);
+      final int valueLength = buffer.getInt();
+      if (valueLength < 0 || valueLength > buffer.remaining()) {
+        break;
+      }
+      final ByteBuffer value = buffer.slice();
+      value.limit(valueLength);
+      entries.put(keyOf(key), value);
+      buffer.position(buffer.position() + valueLength);
+      end = buffer.position();
+    }
+    return end;
+  }
+
+  /**
+   * Returns the SHA-256 digest of the given tagged words.
+   *
+   * @param words the tagged words of a sentence
+   * @return the digest of {@code words}
+   */
+  private static byte[] digestOf(List<TaggedWord> words) {
+    final MessageDigest digest = Caches.sha256();
+    for (TaggedWord word : words) {
+      digest.update(word.word().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      digest.update(String.valueOf(word.tag()).getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+    }
+    return digest.digest();
+  }
+
+  /**
+   * Returns the key of {@code entries} corresponding to the given digest.
+   *
+   * @param digest the digest of the tagged words of a sentence
+   * @return the Base64 encoding of {@code digest}
+   */
+  private static String keyOf(byte[] digest) {
+    return Base64.getEncoder().encodeToString(digest);
+  }
+}
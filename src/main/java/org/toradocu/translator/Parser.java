@@ -6,9 +6,12 @@ import edu.stanford.nlp.ling.HasWord;
 import edu.stanford.nlp.ling.TaggedWord;
 import edu.stanford.nlp.semgraph.SemanticGraph;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
@@ -43,29 +46,45 @@ public class Parser {
       " instanceof +[^ \\.]*"; // e.g. "instanceof BinaryMutation"
   private static final String INEQ_THIS = "(?<!of) this\\."; // e.g "<object> is this."
 
-  /** Stores the inequalities that are replaced by placeholders when addPlaceholders is called. */
-  private static List<String> inequalities = new ArrayList<>();
-
-  /** Stores the cache of semantic graphs for each pair method-comment. */
-  private static Map<MethodComment, List<SemanticGraph>> graphsCache = new HashMap<>();
+  /**
+   * Stores the cache of semantic graphs for each pair method-comment. The cache is accessed
+   * concurrently when classes are translated in parallel.
+   */
+  private static final Map<MethodComment, ParsedComment> graphsCache = new ConcurrentHashMap<>();
 
   private Parser() {}
 
+  /**
+   * Removes from the cache the semantic graphs of the comments of the given methods. Cached graphs
+   * are keyed by documented executable, so they are never reused once the analysis of a class is
+   * over.
+   *
+   * @param methods the methods whose cached semantic graphs must be removed
+   */
+  public static void clearCache(Collection<DocumentedExecutable> methods) {
+    final Set<DocumentedExecutable> methodSet = new HashSet<>(methods);
+    graphsCache.keySet().removeIf(key -> methodSet.contains(key.getMethod()));
+  }
+
   /**
    * Store in cache the semantic graphs for a pair comment, method.
    *
    * @param comment the comment object
    * @param method the DocumentedExecutable
+   * @return the semantic graphs of the comment together with the inequalities replaced by
+   *     placeholders before parsing
    */
-  private static List<SemanticGraph> parse_(Comment comment, DocumentedExecutable method) {
+  private static ParsedComment parse_(Comment comment, DocumentedExecutable method) {
     // Check if cache contains a valid answer.
     MethodComment key = new MethodComment(comment, method);
-    if (graphsCache.containsKey(key)) {
-      return graphsCache.get(key);
+    ParsedComment cached = graphsCache.get(key);
+    if (cached != null) {
+      return cached;
     }
 
     List<SemanticGraph> graphs = new ArrayList<>();
-    Comment commentWithPlaceholders = addPlaceholders(comment);
+    List<String> inequalities = new ArrayList<>();
+    Comment commentWithPlaceholders = addPlaceholders(comment, inequalities);
     List<String> arguments = new ArrayList<>();
     if (method != null) {
       // Collect method arguments
@@ -82,8 +101,9 @@ public class Parser {
       final SemanticGraph semanticGraph = StanfordParser.parse(taggedWords);
       graphs.add(semanticGraph);
     }
-    graphsCache.put(new MethodComment(comment, method), graphs);
-    return graphs;
+    ParsedComment parsed = new ParsedComment(graphs, inequalities);
+    graphsCache.put(key, parsed);
+    return parsed;
   }
 
   /**
@@ -97,11 +117,11 @@ public class Parser {
   // TODO Move this to a new class PropositionIdentifier that handles Proposition.
   public static List<PropositionSeries> parse(Comment comment, DocumentedExecutable method) {
     List<PropositionSeries> result = new ArrayList<>();
-    List<SemanticGraph> semanticGraphs = parse_(comment, method);
-    for (SemanticGraph semanticGraph : semanticGraphs) {
+    ParsedComment parsed = parse_(comment, method);
+    for (SemanticGraph semanticGraph : parsed.graphs) {
       result.add(new SentenceParser(semanticGraph).getPropositionSeries());
     }
-    return removePlaceholders(result);
+    return removePlaceholders(result, parsed.inequalities);
   }
 
   /**
@@ -131,7 +151,16 @@ public class Parser {
     return placeholderText;
   }
 
-  private static Comment addPlaceholders(Comment comment) {
+  /**
+   * Returns a new comment in which inequalities (e.g. "less than 5", "!= null") are replaced by
+   * placeholders. The replaced inequalities are added to {@code inequalities} in the same order as
+   * their placeholders.
+   *
+   * @param comment the comment to process
+   * @param inequalities the list to which replaced inequalities are added
+   * @return the comment with placeholders
+   */
+  private static Comment addPlaceholders(Comment comment, List<String> inequalities) {
 
     ArrayList<String> contentToIgnore = new ArrayList<>();
 
@@ -239,9 +268,11 @@ public class Parser {
    * are replaced by their symbolic equivalent (e.g. "<").
    *
    * @param seriesList the list of {@code PropositionSeries} containing placeholder text
+   * @param inequalities the inequalities replaced by placeholders, in placeholder order
    * @return a new list of {@code PropositionSeries} with placeholders replaced by inequalities
    */
-  private static List<PropositionSeries> removePlaceholders(List<PropositionSeries> seriesList) {
+  private static List<PropositionSeries> removePlaceholders(
+      List<PropositionSeries> seriesList, List<String> inequalities) {
     List<PropositionSeries> result = new ArrayList<>();
 
     for (PropositionSeries series : seriesList) {
@@ -266,9 +297,19 @@ public class Parser {
       result.add(newSeries);
     }
 
-    inequalities.clear();
     return result;
   }
+
+  /** Semantic graphs of a comment and the inequalities replaced by placeholders before parsing. */
+  private static class ParsedComment {
+    private final List<SemanticGraph> graphs;
+    private final List<String> inequalities;
+
+    private ParsedComment(List<SemanticGraph> graphs, List<String> inequalities) {
+      this.graphs = graphs;
+      this.inequalities = inequalities;
+    }
+  }
 }
 
 /** This class ties a String comment to its DocumentedMethod. */
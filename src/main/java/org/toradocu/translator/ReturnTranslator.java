@@ -32,6 +32,11 @@ public class ReturnTranslator {
     // Manage translation of each sub-sentence linked by the Or conjunction separately
     String[] subSentences = manageOrConjunction(commentText);
     List<List<PostSpecification>> conditions = new ArrayList<>();
+    // In batch mode, compliance is checked once the whole class is translated (see
+    // CommentTranslator#createSpecifications), unless the translations of the sub-sentences must be
+    // merged: merging depends on which translations are compilable.
+    final boolean deferComplianceChecks =
+        Configuration.INSTANCE.isBatchComplianceCheckEnabled() && subSentences.length == 1;
 
     for (String subSentence : subSentences) {
       // Split the sentence in three parts: predicate + true case + false case.
@@ -39,9 +44,14 @@ public class ReturnTranslator {
       final int predicateSplitPoint = subSentence.indexOf(" if ");
       if (predicateSplitPoint != -1) {
         conditions.add(
-            returnStandardPattern(excMember, subSentence, tag.getComment(), predicateSplitPoint));
+            returnStandardPattern(
+                excMember,
+                subSentence,
+                tag.getComment(),
+                predicateSplitPoint,
+                deferComplianceChecks));
       } else {
-        conditions.add(returnNotStandard(excMember, subSentence));
+        conditions.add(returnNotStandard(excMember, subSentence, deferComplianceChecks));
       }
     }
 
@@ -315,13 +325,15 @@ public class ReturnTranslator {
    * @param textToTranslate the String text to translate
    * @param comment original {@code Comment}
    * @param predicateSplitPoint index of the "if"
+   * @param deferComplianceChecks whether the compliance of the translation is checked later
    * @return the translation produced
    */
   private static List<PostSpecification> returnStandardPattern(
       DocumentedExecutable method,
       String textToTranslate,
       Comment comment,
-      int predicateSplitPoint) {
+      int predicateSplitPoint,
+      boolean deferComplianceChecks) {
     List<PostSpecification> specs = new ArrayList<>();
 
     if (textToTranslate.contains(";")) {
@@ -351,7 +363,7 @@ public class ReturnTranslator {
         if (!conditionTranslation.isEmpty() && !predicateTranslation.isEmpty()) {
           Guard trueGuard = new Guard(textToTranslate, conditionTranslation);
           Property trueProperty = new Property(textToTranslate, predicateTranslation);
-          if (isPostSpecCompilable(method, trueGuard, trueProperty)) {
+          if (deferComplianceChecks || isPostSpecCompilable(method, trueGuard, trueProperty)) {
             specs.add(new PostSpecification(textToTranslate, trueGuard, trueProperty));
           }
           String elsePredicate = translateLastPart(falseCase, method);
@@ -359,7 +371,7 @@ public class ReturnTranslator {
             String invertedGuard = "(" + conditionTranslation + ")==false";
             Guard falseGuard = new Guard(textToTranslate, invertedGuard);
             Property falseProperty = new Property(textToTranslate, elsePredicate);
-            if (isPostSpecCompilable(method, falseGuard, falseProperty)) {
+            if (deferComplianceChecks || isPostSpecCompilable(method, falseGuard, falseProperty)) {
               specs.add(new PostSpecification(textToTranslate, falseGuard, falseProperty));
             }
           }
@@ -380,10 +392,11 @@ public class ReturnTranslator {
    *
    * @param method the DocumentedExecutable the tag belongs to
    * @param comment the String comment belonging to the tag
+   * @param deferComplianceChecks whether the compliance of the translation is checked later
    * @return a String translation if any, or an empty string
    */
   private static List<PostSpecification> returnNotStandard(
-      DocumentedExecutable method, String comment) {
+      DocumentedExecutable method, String comment, boolean deferComplianceChecks) {
     List<PostSpecification> specs = new ArrayList<>();
 
     String translation = null;
@@ -458,7 +471,8 @@ public class ReturnTranslator {
         }
       }
     }
-    if (property != null && isPostSpecCompilable(method, guard, property)) {
+    if (property != null
+        && (deferComplianceChecks || isPostSpecCompilable(method, guard, property))) {
       specs.add(new PostSpecification(comment, guard, property));
     }
     return specs;
@@ -10,22 +10,30 @@ import edu.stanford.nlp.trees.GrammaticalStructure;
 import edu.stanford.nlp.trees.GrammaticalStructureFactory;
 import edu.stanford.nlp.trees.Tree;
 import edu.stanford.nlp.trees.TreebankLanguagePack;
+import java.io.File;
+import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.toradocu.Toradocu;
+import org.toradocu.conf.Configuration;
 
 /**
  * This class provides a method to get the semantic graph of a sentence produced by the Stanford
  * parser. To optimize execution time, the Stanford parser is initialized once in the static block
- * to ensure that its initialization phase is done only once.
+ * to ensure that its initialization phase is done only once. When a parse cache directory is
+ * configured, semantic graphs are also stored in a persistent {@code ParseCache} and reused across
+ * runs.
  */
 public class StanfordParser {
 
   private static final LexicalizedParser LEXICALIZED_PARSER;
   private static final GrammaticalStructureFactory GSF;
   private static final Logger log = LoggerFactory.getLogger(StanfordParser.class);
+  /** Persistent cache of semantic graphs, null if disabled. */
+  private static final ParseCache PARSE_CACHE = openParseCache();
 
   static {
     LEXICALIZED_PARSER = LexicalizedParser.loadModel();
@@ -38,6 +46,38 @@ public class StanfordParser {
     GSF = tlp.grammaticalStructureFactory();
   }
 
+  /**
+   * Opens the parse cache in the directory specified in the configuration.
+   *
+   * @return the parse cache, or null if no directory is specified or the cache cannot be opened
+   */
+  private static ParseCache openParseCache() {
+    final File directory = Configuration.INSTANCE.getParseCacheDir();
+    if (directory == null) {
+      return null;
+    }
+    try {
+      return ParseCache.open(directory, getVersion());
+    } catch (IOException e) {
+      log.warn("Unable to open the parse cache in " + directory + ", the cache is disabled", e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns a string that identifies the versions of Toradocu, CoreNLP, and the parser model.
+   * Results of the parser cached across runs must be invalidated whenever this string changes.
+   *
+   * @return the version of Toradocu and of the parser
+   */
+  public static String getVersion() {
+    return String.join(
+        " ",
+        String.valueOf(Toradocu.class.getPackage().getImplementationVersion()),
+        String.valueOf(LexicalizedParser.class.getPackage().getImplementationVersion()),
+        LexicalizedParser.DEFAULT_PARSER_LOC);
+  }
+
   static List<List<HasWord>> tokenize(String comment) {
     final DocumentPreprocessor sentences = new DocumentPreprocessor(new StringReader(comment));
     ArrayList<List<HasWord>> result = new ArrayList<>();
@@ -54,11 +94,21 @@ public class StanfordParser {
    * @return the semantic graph of the input sentence produced by the Stanford Parser
    */
   public static SemanticGraph parse(List<TaggedWord> words) {
+    if (PARSE_CACHE != null) {
+      final SemanticGraph cached = PARSE_CACHE.get(words);
+      if (cached != null) {
+        return cached;
+      }
+    }
     // Parse the sentence.
     Tree tree = LEXICALIZED_PARSER.parse(words);
     GrammaticalStructure gs = GSF.newGrammaticalStructure(tree);
     // Build the semantic graph.
-    return new SemanticGraph(gs.typedDependenciesCCprocessed());
+    final SemanticGraph graph = new SemanticGraph(gs.typedDependenciesCCprocessed());
+    if (PARSE_CACHE != null) {
+      PARSE_CACHE.put(words, graph);
+    }
+    return graph;
   }
 
   public static List<CoreLabel> lemmatize(String text) {
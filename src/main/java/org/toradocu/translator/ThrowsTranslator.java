@@ -2,6 +2,7 @@ package org.toradocu.translator;
 
 import static org.toradocu.util.ComplianceChecks.isSpecCompilable;
 
+import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.ThrowsTag;
 import randoop.condition.specification.Guard;
@@ -18,7 +19,11 @@ public class ThrowsTranslator {
     final Guard guard = new Guard(tag.getComment().getText(), commentTranslation);
     final String exceptionName = tag.getException().getName();
 
-    if (commentTranslation.isEmpty() || !isSpecCompilable(excMember, guard)) {
+    // In batch mode, compliance is checked once the whole class is translated (see
+    // CommentTranslator#createSpecifications).
+    if (commentTranslation.isEmpty()
+        || (!Configuration.INSTANCE.isBatchComplianceCheckEnabled()
+            && !isSpecCompilable(excMember, guard))) {
       return new ThrowsSpecification(
           tag.toString(), new Guard(tag.getComment().getText(), ""), exceptionName);
     }
@@ -0,0 +1,383 @@
+package org.toradocu.translator.semantic;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only store of word embeddings in a compact binary format that is memory-mapped when opened,
+ * so that vectors are read on demand from the OS page cache (shared among processes) instead of
+ * being loaded on the heap. A store is created once from a GloVe text model with {@link
+ * #convert(InputStream, Path)}, or by running this class as a program:
+ *
+ * <pre>java org.toradocu.translator.semantic.EmbeddingStore glove.6B.300d.txt glove.6B.300d.emb
+ * </pre>
+ *
+ * <p>The format consists of a header (magic number, format version, vector dimension, number of
+ * words), the offsets of the words in the vocabulary sorted by their UTF-8 bytes, the row of the
+ * vector of each word, the UTF-8 bytes of the words, and the vectors as half-precision floats.
+ */
+public final class EmbeddingStore {
+
+  /** Magic number at the beginning of a store file. */
+  private static final int MAGIC = 0x54454D42;
+  /** Version of the store format, to be increased whenever the format changes. */
+  private static final int FORMAT_VERSION = 1;
+  /** Size in bytes of the header of a store file. */
+  private static final int HEADER_SIZE = 16;
+
+  /** The mapped store file. Only absolute reads are performed, so the buffer is thread-safe. */
+  private final ByteBuffer buffer;
+  /** Number of components of every vector. */
+  private final int dimension;
+  /** Number of words in the vocabulary. */
+  private final int size;
+  /** Position of the row numbers in {@code buffer}. */
+  private final int rowsStart;
+  /** Position of the words in {@code buffer}. */
+  private final int wordsStart;
+  /** Position of the vectors in {@code buffer}. */
+  private final int vectorsStart;
+  /** CRC-32 of the store file, or -1 if not computed yet. */
+  private volatile long checksum = -1;
+
+  private EmbeddingStore(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    if (buffer.limit() < HEADER_SIZE
+        || buffer.getInt(0) != MAGIC
+        || buffer.getInt(4) != FORMAT_VERSION) {
+      throw new IOException("Not an embedding store, or a store created by another version");
+    }
+    dimension = buffer.getInt(8);
+    size = buffer.getInt(12);
+    if (size < 0 || size > (buffer.limit() - HEADER_SIZE) / 8) {
+      throw new IOException("Embedding store is corrupted or incomplete");
+    }
+    rowsStart = HEADER_SIZE + 4 * (size + 1);
+    wordsStart = rowsStart + 4 * size;
+    vectorsStart = vectorsStart(wordsStart + buffer.getInt(rowsStart - 4));
+    if (dimension <= 0 || vectorsStart + 2L * size * dimension != buffer.limit()) {
+      throw new IOException("Embedding store is corrupted or incomplete");
+    }
+  }
+
+  /**
+   * Opens the given store file. The file is mapped in memory, and it must not be modified while the
+   * store is in use.
+   *
+   * @param file a file created by {@link #convert(InputStream, Path)}
+   * @return the store
+   * @throws IOException if the file cannot be read or is not a valid store
+   */
+  public static EmbeddingStore open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Embedding store " + file + " is too large");
+      }
+      return new EmbeddingStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Returns the number of components of the vectors in this store.
+   *
+   * @return the number of components of the vectors in this store
+   */
+  public int dimension() {
+    return dimension;
+  }
+
+  /**
+   * Returns the number of words in this store.
+   *
+   * @return the number of words in this store
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the CRC-32 checksum of the store file, which identifies the embeddings in this store.
+   * The checksum is computed the first time this method is called.
+   *
+   * @return the checksum of the store file
+   */
+  public long checksum() {
+    if (checksum == -1) {
+      final CRC32 crc = new CRC32();
+      crc.update(buffer.duplicate());
+      checksum = crc.getValue();
+    }
+    return checksum;
+  }
+
+  /**
+   * Returns true if this store contains a vector for the given word.
+   *
+   * @param word the word to look up
+   * @return true if this store contains a vector for {@code word}
+   */
+  public boolean hasWord(String word) {
+    return indexOf(word) >= 0;
+  }
+
+  /**
+   * Returns the vector of the given word.
+   *
+   * @param word the word to look up
+   * @return the vector of {@code word}, or null if this store does not contain {@code word}
+   */
+  public float[] getVector(String word) {
+    final int index = indexOf(word);
+    if (index < 0) {
+      return null;
+    }
+    final int start = vectorsStart + 2 * dimension * buffer.getInt(rowsStart + 4 * index);
+    final float[] vector = new float[dimension];
+    for (int i = 0; i < dimension; i++) {
+      vector[i] = toFloat(buffer.getShort(start + 2 * i));
+    }
+    return vector;
+  }
+
+  /** Returns the position of the given word in the vocabulary, or -1 if it is not there. */
+  private int indexOf(String word) {
+    final byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int comparison = compareWord(middle, bytes);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /** Compares the UTF-8 bytes of the word at the given position with the given bytes. */
+  private int compareWord(int index, byte[] bytes) {
+    final int start = wordsStart + buffer.getInt(HEADER_SIZE + 4 * index);
+    final int length = wordsStart + buffer.getInt(HEADER_SIZE + 4 * index + 4) - start;
+    for (int i = 0; i < length && i < bytes.length; i++) {
+      final int comparison = Integer.compare(buffer.get(start + i) & 0xFF, bytes[i] & 0xFF);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return Integer.compare(length, bytes.length);
+  }
+
+  /**
+   * Converts a GloVe model in text format (one word per line, followed by the components of its
+   * vector, separated by spaces) to a store file. Only the first vector of a repeated word is kept.
+   * The vectors are streamed to disk while reading the model, so that the conversion does not need
+   * to keep the model in memory. The store file is written atomically, so that concurrent processes
+   * never see an incomplete store.
+   *
+   * @param model the GloVe model in text format
+   * @param destination the store file to create
+   * @throws IOException if the model cannot be read or the store cannot be written
+   */
+  public static void convert(InputStream model, Path destination) throws IOException {
+    final Path directory = destination.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    final Path vectorsFile = Files.createTempFile(directory, "vectors", ".tmp");
+    // Unlike Files.createTempFile, this creates the store with the default file permissions.
+    final Path storeFile =
+        directory.resolve(destination.getFileName() + "." + UUID.randomUUID() + ".tmp");
+    // The conversion can run in a daemon thread, which is not given the chance to clean up.
+    vectorsFile.toFile().deleteOnExit();
+    storeFile.toFile().deleteOnExit();
+    try {
+      final List<byte[]> words = new ArrayList<>();
+      int dimension = -1;
+      try (BufferedReader reader =
+              new BufferedReader(new InputStreamReader(model, StandardCharsets.UTF_8));
+          DataOutputStream vectors =
+              new DataOutputStream(
+                  new BufferedOutputStream(Files.newOutputStream(vectorsFile), 1 << 16))) {
+        final Set<String> seenWords = new HashSet<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+          final String[] tokens = line.trim().split(" ");
+          if (tokens.length < 2 || !seenWords.add(tokens[0])) {
+            continue;
+          }
+          if (dimension == -1) {
+            dimension = tokens.length - 1;
+          } else if (tokens.length - 1 != dimension) {
+            throw new IOException("Vector of \"" + tokens[0] + "\" has a different dimension");
+          }
+          for (int i = 1; i < tokens.length; i++) {
+            vectors.writeShort(toHalf(Float.parseFloat(tokens[i])));
+          }
+          words.add(tokens[0].getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      if (dimension == -1) {
+        throw new IOException("The model does not contain any vector");
+      }
+
+      // Sort the vocabulary, remembering the row of the vector of each word.
+      final Integer[] order = new Integer[words.size()];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (i, j) -> compareBytes(words.get(i), words.get(j)));
+
+      try (DataOutputStream store =
+              new DataOutputStream(
+                  new BufferedOutputStream(Files.newOutputStream(storeFile), 1 << 16));
+          DataInputStream vectors =
+              new DataInputStream(new BufferedInputStream(Files.newInputStream(vectorsFile)))) {
+        store.writeInt(MAGIC);
+        store.writeInt(FORMAT_VERSION);
+        store.writeInt(dimension);
+        store.writeInt(words.size());
+        int offset = 0;
+        store.writeInt(offset);
+        for (Integer row : order) {
+          offset += words.get(row).length;
+          store.writeInt(offset);
+        }
+        for (Integer row : order) {
+          store.writeInt(row);
+        }
+        for (Integer row : order) {
+          store.write(words.get(row));
+        }
+        final int wordsEnd = HEADER_SIZE + 8 * words.size() + 4 + offset;
+        for (int i = wordsEnd; i < vectorsStart(wordsEnd); i++) {
+          store.write(0);
+        }
+        final byte[] block = new byte[1 << 16];
+        int read;
+        while ((read = vectors.read(block)) != -1) {
+          store.write(block, 0, read);
+        }
+      }
+      Files.move(storeFile, destination, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(vectorsFile);
+      Files.deleteIfExists(storeFile);
+    }
+  }
+
+  /**
+   * Given a GloVe model in text format and a destination file, this program converts the model to
+   * an embedding store.
+   *
+   * @param args the GloVe model in text format and the store file to create
+   * @throws IOException if the model cannot be read or the store cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException("Usage: EmbeddingStore <glove-model.txt> <store-file>");
+    }
+    try (InputStream model = Files.newInputStream(Paths.get(args[0]))) {
+      convert(model, Paths.get(args[1]));
+    }
+  }
+
+  /** Returns the position of the vectors, given the position of the end of the words. */
+  private static int vectorsStart(int wordsEnd) {
+    return (wordsEnd + 1) & ~1; // Vectors are aligned to 2 bytes.
+  }
+
+  private static int compareBytes(byte[] a, byte[] b) {
+    for (int i = 0; i < a.length && i < b.length; i++) {
+      final int comparison = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return Integer.compare(a.length, b.length);
+  }
+
+  /**
+   * Returns the half-precision float (IEEE 754 binary16) nearest to the given float, rounding ties
+   * to even.
+   *
+   * @param value a float
+   * @return the bits of the nearest half-precision float
+   */
+  static short toHalf(float value) {
+    final int bits = Float.floatToIntBits(value);
+    final int sign = (bits >>> 16) & 0x8000;
+    final int exponent = (bits >>> 23) & 0xFF;
+    final int mantissa = bits & 0x7FFFFF;
+    if (exponent == 0xFF) { // Infinity or NaN.
+      return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0));
+    }
+    final int halfExponent = exponent - 127 + 15;
+    if (halfExponent >= 0x1F) { // Overflow to infinity.
+      return (short) (sign | 0x7C00);
+    }
+    if (halfExponent <= 0) { // Subnormal half, or zero.
+      if (halfExponent < -10) {
+        return (short) sign;
+      }
+      final int fullMantissa = mantissa | 0x800000;
+      final int shift = 14 - halfExponent;
+      return (short) (sign | roundShift(fullMantissa, shift));
+    }
+    // The rounding carry propagates to the exponent, which is the correct result.
+    return (short) (sign | roundShift((halfExponent << 23) | mantissa, 13));
+  }
+
+  /** Shifts the given value to the right, rounding to nearest and ties to even. */
+  private static int roundShift(int value, int shift) {
+    final int result = value >>> shift;
+    final int remainder = value & ((1 << shift) - 1);
+    final int half = 1 << (shift - 1);
+    if (remainder > half || (remainder == half && (result & 1) == 1)) {
+      return result + 1;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the float value of the given half-precision float.
+   *
+   * @param half the bits of a half-precision float (IEEE 754 binary16)
+   * @return the float value of {@code half}
+   */
+  static float toFloat(short half) {
+    final int sign = (half & 0x8000) << 16;
+    final int exponent = (half >>> 10) & 0x1F;
+    final int mantissa = half & 0x3FF;
+    if (exponent == 0x1F) {
+      return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+    }
+    if (exponent == 0) {
+      final float value = mantissa * 0x1p-24f; // Subnormal half, or zero.
+      return sign == 0 ? value : -value;
+    }
+    return Float.intBitsToFloat(sign | ((exponent - 15 + 127) << 23) | (mantissa << 13));
+  }
+}
@@ -1,13 +1,10 @@
 package org.toradocu.translator.semantic;
 
 import de.jungblut.glove.GloveRandomAccessReader;
-import de.jungblut.glove.impl.GloveBinaryRandomAccessReader;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URISyntaxException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 
 /** Created by arianna on 31/07/17. */
 public class GloveBinModelWrapper {
@@ -19,14 +16,12 @@ public class GloveBinModelWrapper {
   protected GloveBinModelWrapper() {
     try {
       gloveBinaryReader = createGloVeReader();
-    } catch (URISyntaxException e) {
-      e.printStackTrace();
     } catch (IOException e) {
       e.printStackTrace();
     }
   }
 
-  public static GloveBinModelWrapper getInstance() throws URISyntaxException {
+  public static synchronized GloveBinModelWrapper getInstance() throws URISyntaxException {
     if (instance == null) {
       instance = new GloveBinModelWrapper();
     }
@@ -34,32 +29,21 @@ public class GloveBinModelWrapper {
   }
 
   /**
-   * Copy GloVe models from resources to a local folder and instantiate the reader.
+   * Instantiates the reader of the GloVe binary model in the Toradocu jar. The model files are
+   * mapped where they are if they are plain files, and are otherwise extracted once to the model
+   * cache directory (see {@link ModelFiles}).
    *
    * @return the reader
+   * @throws IOException if the model cannot be found, extracted, or read
    */
-  private GloveRandomAccessReader createGloVeReader() throws URISyntaxException, IOException {
+  private GloveRandomAccessReader createGloVeReader() throws IOException {
     String gloveBinaries = "glove-binary";
-    String file1 = "dict.bin";
-    String file2 = "vectors.bin";
-
-    // Copy GloVe models in Toradocu jar to glove-binary folder and use them.
-    String file1Path = "/" + gloveBinaries + "/" + file1;
-    String file2Path = "/" + gloveBinaries + "/" + file2;
-    InputStream gloveBinary1 = getClass().getResourceAsStream(file1Path);
-    InputStream gloveBinary2 = getClass().getResourceAsStream(file2Path);
-    Path destinationFile1 = Paths.get(gloveBinaries, file1);
-    Path destinationFile2 = Paths.get(gloveBinaries, file2);
-
-    Path folderPath = Paths.get(gloveBinaries);
-    if (!Files.exists(folderPath)) {
-      Files.createDirectory(folderPath);
-    }
-    if (Files.list(folderPath).count() == 0) {
-      Files.copy(gloveBinary1, destinationFile1);
-      Files.copy(gloveBinary2, destinationFile2);
+    Path dictionary = ModelFiles.locate(gloveBinaries + "/dict.bin");
+    Path vectors = ModelFiles.locate(gloveBinaries + "/vectors.bin");
+    if (dictionary == null || vectors == null) {
+      throw new FileNotFoundException("GloVe binary model not found in the Toradocu jar");
     }
-    return new GloveBinaryRandomAccessReader(folderPath);
+    return new GloveBinaryMappedReader(dictionary, vectors);
   }
 
   public GloveRandomAccessReader getGloveBinaryReader() {
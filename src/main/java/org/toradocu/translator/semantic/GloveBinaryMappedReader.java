@@ -0,0 +1,126 @@
+package org.toradocu.translator.semantic;
+
+import de.jungblut.glove.GloveRandomAccessReader;
+import de.jungblut.math.DoubleVector;
+import de.jungblut.math.dense.DenseDoubleVector;
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reader of a GloVe model in the binary format of {@code GloveBinaryWriter}: a dictionary file,
+ * with every word followed by the offset of its vector, and a vectors file, with the vectors as
+ * sequences of floats. Unlike {@code GloveBinaryRandomAccessReader}, which maps a region of the
+ * vectors file at every lookup, this reader maps the whole vectors file once, so that lookups only
+ * read from memory shared with the OS page cache. Instances of this class are thread-safe.
+ */
+final class GloveBinaryMappedReader implements GloveRandomAccessReader {
+
+  /** Offsets of the vectors of the words in {@code vectors}. */
+  private final Map<String, Integer> offsets = new HashMap<>();
+
+  /** The mapped vectors file. Only absolute reads are performed, so the buffer is thread-safe. */
+  private final ByteBuffer vectors;
+
+  /** Number of components of every vector. */
+  private final int dimension;
+
+  /**
+   * Opens the given GloVe model. The vectors file is mapped in memory, and it must not be modified
+   * while the reader is in use.
+   *
+   * @param dictionary the dictionary file of the model
+   * @param vectors the vectors file of the model
+   * @throws IOException if the files cannot be read or are not a valid model
+   */
+  GloveBinaryMappedReader(Path dictionary, Path vectors) throws IOException {
+    try (FileChannel channel = FileChannel.open(vectors, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("GloVe model " + vectors + " is too large");
+      }
+      this.vectors = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    long blockSize = -1;
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(dictionary)))) {
+      long previousOffset = -1;
+      while (true) {
+        final String word;
+        try {
+          word = in.readUTF();
+        } catch (EOFException e) {
+          break;
+        }
+        final long offset = readVLong(in);
+        if (previousOffset != -1) {
+          if (blockSize == -1) {
+            blockSize = offset - previousOffset;
+          } else if (offset - previousOffset != blockSize) {
+            throw new IOException("GloVe dictionary " + dictionary + " is corrupted");
+          }
+        }
+        previousOffset = offset;
+        offsets.put(word, (int) offset);
+      }
+      if (blockSize == -1 && previousOffset != -1) {
+        // A single vector fills the whole file.
+        blockSize = this.vectors.limit() - previousOffset;
+      }
+      if (previousOffset != -1 && previousOffset + blockSize > this.vectors.limit()) {
+        throw new IOException("GloVe model " + vectors + " is incomplete");
+      }
+    }
+    dimension = (int) (Math.max(blockSize, 0) / 4);
+  }
+
+  @Override
+  public boolean contains(String word) {
+    return offsets.containsKey(word);
+  }
+
+  @Override
+  public DoubleVector get(String word) {
+    final Integer offset = offsets.get(word);
+    if (offset == null) {
+      return null;
+    }
+    final DoubleVector vector = new DenseDoubleVector(dimension);
+    for (int i = 0; i < dimension; i++) {
+      vector.set(i, vectors.getFloat(offset + 4 * i));
+    }
+    return vector;
+  }
+
+  /**
+   * Reads a long written in the variable-length format of Hadoop's {@code WritableUtils}: values
+   * between -112 and 127 take one byte; otherwise, the first byte gives the sign and the number of
+   * the following bytes, which hold the value (complemented if negative) in big-endian order.
+   *
+   * @param in the input to read
+   * @return the long read
+   * @throws IOException if the input cannot be read
+   */
+  static long readVLong(DataInput in) throws IOException {
+    final byte first = in.readByte();
+    if (first >= -112) {
+      return first;
+    }
+    final boolean negative = first < -120;
+    final int length = negative ? -(first + 120) : -(first + 112);
+    long value = 0;
+    for (int i = 0; i < length; i++) {
+      value = (value << 8) | (in.readByte() & 0xFF);
+    }
+    return negative ? ~value : value;
+  }
+}
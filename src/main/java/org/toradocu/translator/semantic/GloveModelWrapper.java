@@ -1,30 +1,26 @@
 package org.toradocu.translator.semantic;
 
-import java.io.File;
-import java.io.InputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.net.URISyntaxException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import org.deeplearning4j.models.embeddings.loader.WordVectorSerializer;
-import org.deeplearning4j.models.embeddings.wordvectors.WordVectors;
 
 /** Created by arianna on 31/07/17. */
 public class GloveModelWrapper {
 
   private static GloveModelWrapper instance = null;
 
-  private static WordVectors gloveTxtVectors = null;
+  private static EmbeddingStore gloveEmbeddings = null;
 
   protected GloveModelWrapper() {
     // Exists only to defeat instantiation.
   }
 
-  public static GloveModelWrapper getInstance() throws URISyntaxException {
+  public static synchronized GloveModelWrapper getInstance() throws URISyntaxException {
     if (instance == null) {
       instance = new GloveModelWrapper();
       try {
-        gloveTxtVectors = setUpGloveTxtVectors();
+        gloveEmbeddings = setUpGloveEmbeddings();
       } catch (Exception e) {
         e.printStackTrace();
       }
@@ -32,34 +28,30 @@ public class GloveModelWrapper {
     return instance;
   }
 
-  private static WordVectors setUpGloveTxtVectors() throws Exception {
-    String gloveTxtFolder = "glove-txt";
+  /**
+   * Opens the GloVe embedding store in the Toradocu jar. The store is mapped where it is if it is a
+   * plain file, and is otherwise extracted once to the model cache directory (see {@link
+   * ModelFiles}). If the jar only contains the GloVe model in text format, the model is converted
+   * to a store in the model cache directory instead (this takes a while, but happens only once).
+   *
+   * @return the GloVe embedding store
+   * @throws IOException if the store cannot be created or opened
+   */
+  private static EmbeddingStore setUpGloveEmbeddings() throws IOException {
+    String gloveEmbeddingsFile = "glove.6B.300d.emb";
     String gloveTxtFile = "glove.6B.300d.txt";
 
-    // Copy GloVe models in Toradocu jar to glove-txt folder and use them.
-    String filePath = "/" + gloveTxtFile;
-    InputStream gloveInputStream = GloveModelWrapper.class.getResourceAsStream(filePath);
-    Path destinationFile = Paths.get(gloveTxtFolder, gloveTxtFile);
-
-    Path folderPath = Paths.get(gloveTxtFolder);
-    if (!Files.exists(folderPath)) {
-      Files.createDirectory(folderPath);
-    }
-    if (Files.list(folderPath).count() == 0) {
-      Files.copy(gloveInputStream, destinationFile);
+    Path store = ModelFiles.locate(gloveEmbeddingsFile);
+    if (store == null) {
+      store = ModelFiles.derive(gloveTxtFile, gloveEmbeddingsFile, EmbeddingStore::convert);
     }
-    WordVectors gloveVectors = null;
-    try {
-      File gloveFinalFile = destinationFile.toFile();
-      gloveVectors = WordVectorSerializer.loadTxtVectors(gloveFinalFile);
-      gloveFinalFile.deleteOnExit();
-    } catch (Exception e) {
-      e.printStackTrace();
+    if (store == null) {
+      throw new FileNotFoundException("GloVe model not found in the Toradocu jar");
     }
-    return gloveVectors;
+    return EmbeddingStore.open(store);
   }
 
-  public WordVectors getGloveTxtVectors() {
-    return gloveTxtVectors;
+  public EmbeddingStore getGloveEmbeddings() {
+    return gloveEmbeddings;
   }
 }
@@ -0,0 +1,139 @@
+package org.toradocu.translator.semantic;
+
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.ling.HasWord;
+import edu.stanford.nlp.process.Morphology;
+import edu.stanford.nlp.process.TokenizerFactory;
+import edu.stanford.nlp.trees.PennTreebankLanguagePack;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.toradocu.conf.Configuration;
+import org.toradocu.translator.StanfordParser;
+import org.toradocu.util.Caches;
+
+/**
+ * Lemmatizers of the words of comments and of code element names, used by the semantic matcher.
+ * Lemmatizers are thread-safe, and keep their most recent results in a bounded LRU cache.
+ */
+enum Lemmatizer {
+
+  /**
+   * Lemmatizes texts with the Stanford parser: words are tagged according to the parse tree of the
+   * whole text, and then reduced to their lemma by the morphological analyzer. Since the lemma of a
+   * word depends on the rest of the text, lemmas are cached by text.
+   */
+  STANFORD_PARSER {
+    private final Map<String, List<String>> lemmasByText = Caches.lruCache(MAX_CACHED_TEXTS);
+
+    @Override
+    List<String> lemmatize(String text) {
+      List<String> lemmas = lemmasByText.get(text);
+      if (lemmas == null) {
+        lemmas =
+            StanfordParser.lemmatize(text)
+                .stream()
+                .map(CoreLabel::lemma)
+                .collect(Collectors.toList());
+        lemmas = Collections.unmodifiableList(lemmas);
+        lemmasByText.put(text, lemmas);
+      }
+      return lemmas;
+    }
+  },
+
+  /**
+   * Lemmatizes texts word by word with the morphological analyzer alone, without parsing them.
+   * Words are not tagged, so the analyzer reduces every word that could be a noun or a verb. The
+   * lemmas are the ones of the Stanford parser for most words, but not for words whose tag depends
+   * on the context: e.g., "specified" is reduced to "specify" even when the parser tags it as an
+   * adjective. Lemmas are cached by word.
+   */
+  MORPHOLOGY {
+    private final Map<String, String> lemmasByWord = Caches.lruCache(MAX_CACHED_WORDS);
+
+    @Override
+    List<String> lemmatize(String text) {
+      final List<String> lemmas = new ArrayList<>();
+      for (HasWord word : TOKENIZER_FACTORY.getTokenizer(new StringReader(text)).tokenize()) {
+        lemmas.add(lemmasByWord.computeIfAbsent(word.word(), Lemmatizer::lemmatizeWord));
+      }
+      return lemmas;
+    }
+  };
+
+  /** Maximum number of texts whose lemmas are cached by {@code STANFORD_PARSER}. */
+  private static final int MAX_CACHED_TEXTS = 10_000;
+
+  /** Maximum number of words whose lemma is cached by {@code MORPHOLOGY}. */
+  private static final int MAX_CACHED_WORDS = 100_000;
+
+  /** Tokenizer of the Stanford parser for English texts. */
+  private static final TokenizerFactory<? extends HasWord> TOKENIZER_FACTORY =
+      new PennTreebankLanguagePack().getTokenizerFactory();
+
+  /** Morphological analyzer. It is not thread-safe, and must be used in a synchronized block. */
+  private static final Morphology MORPHA = new Morphology();
+
+  /**
+   * Tags of frequent words that are never nouns or verbs, for which the untagged analysis of the
+   * morphological analyzer differs from the lemma given by the Stanford parser (e.g., "no" would be
+   * reduced to "know").
+   */
+  private static final Map<String, String> CLOSED_CLASS_TAGS = new HashMap<>();
+
+  static {
+    for (String word : new String[] {"an", "no"}) {
+      CLOSED_CLASS_TAGS.put(word, "DT");
+    }
+    for (String word : new String[] {"her", "his", "our", "their"}) {
+      CLOSED_CLASS_TAGS.put(word, "PRP$");
+    }
+    for (String word : new String[] {"him", "me", "them", "us"}) {
+      CLOSED_CLASS_TAGS.put(word, "PRP");
+    }
+    for (String word : new String[] {"towards", "via"}) {
+      CLOSED_CLASS_TAGS.put(word, "IN");
+    }
+    CLOSED_CLASS_TAGS.put("always", "RB");
+  }
+
+  /**
+   * Returns the lemmas of the words of the given text. Words are tokenized as the Stanford parser
+   * does, so the returned list has one lemma per token of the text.
+   *
+   * @param text a text
+   * @return the lemmas of the tokens of {@code text}
+   */
+  abstract List<String> lemmatize(String text);
+
+  /**
+   * Returns the lemmatizer selected in the configuration.
+   *
+   * @return {@code MORPHOLOGY} if fast lemmatization is enabled, {@code STANFORD_PARSER} otherwise
+   */
+  static Lemmatizer fromConfiguration() {
+    return Configuration.INSTANCE.isFastLemmatizationEnabled() ? MORPHOLOGY : STANFORD_PARSER;
+  }
+
+  /**
+   * Returns the lemma of the given word computed by the morphological analyzer alone.
+   *
+   * @param word a word
+   * @return the lemma of {@code word}
+   */
+  private static String lemmatizeWord(String word) {
+    // Single letters are names of variables, such as "m" or "v", rather than words.
+    if (word.length() == 1) {
+      return word;
+    }
+    final String tag = CLOSED_CLASS_TAGS.get(word);
+    synchronized (MORPHA) {
+      return tag == null ? MORPHA.stem(word) : MORPHA.lemma(word, tag);
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package org.toradocu.translator.semantic;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.jar.JarEntry;
+import org.toradocu.conf.Configuration;
+import org.toradocu.util.Caches;
+
+/**
+ * Files of the models of the semantic matcher, to be memory-mapped. Models that are plain files on
+ * the classpath are mapped where they are. Models in the Toradocu jar are extracted to the model
+ * cache directory (see {@link Configuration#getModelCacheDir()}), in a subdirectory named after the
+ * checksum of their content, so that every version of a model is extracted only once and the
+ * extracted files are shared read-only by all the Toradocu processes. Files are extracted while
+ * holding a lock on their subdirectory and moved atomically to their final name, so that concurrent
+ * processes never extract the same file twice, nor see an incomplete file.
+ */
+final class ModelFiles {
+
+  /** Creates a file from the content of a model. */
+  interface Extractor {
+    /**
+     * Writes the file derived from the given model.
+     *
+     * @param model the content of the model
+     * @param destination the file to create
+     * @throws IOException if the model cannot be read or the file cannot be written
+     */
+    void extract(InputStream model, Path destination) throws IOException;
+  }
+
+  private ModelFiles() {}
+
+  /**
+   * Returns a file with the content of the given resource, which is either the resource itself or a
+   * copy extracted to the model cache directory.
+   *
+   * @param resource the name of the resource, relative to the root of the classpath
+   * @return the file with the content of {@code resource}, or null if the resource does not exist
+   * @throws IOException if the resource cannot be extracted
+   */
+  static Path locate(String resource) throws IOException {
+    final URL url = ModelFiles.class.getResource("/" + resource);
+    if (url == null) {
+      return null;
+    }
+    if (url.getProtocol().equals("file")) {
+      try {
+        return Paths.get(url.toURI());
+      } catch (URISyntaxException e) {
+        throw new IOException("Invalid resource URL " + url, e);
+      }
+    }
+    return extract(url, Paths.get(resource).getFileName().toString(), Files::copy);
+  }
+
+  /**
+   * Returns the file derived from the given resource by the given extractor, creating it in the
+   * model cache directory if it does not exist yet.
+   *
+   * @param resource the name of the resource, relative to the root of the classpath
+   * @param fileName the name of the file to create
+   * @param extractor the extractor creating the file from the content of the resource
+   * @return the file derived from {@code resource}, or null if the resource does not exist
+   * @throws IOException if the file cannot be created
+   */
+  static Path derive(String resource, String fileName, Extractor extractor) throws IOException {
+    final URL url = ModelFiles.class.getResource("/" + resource);
+    return url == null ? null : extract(url, fileName, extractor);
+  }
+
+  /**
+   * Returns the file derived from the model at the given URL, creating it if it does not exist.
+   *
+   * @param url the URL of the model
+   * @param fileName the name of the file to create
+   * @param extractor the extractor creating the file from the content of the model
+   * @return the file derived from the model
+   * @throws IOException if the model cannot be read or the file cannot be created
+   */
+  private static Path extract(URL url, String fileName, Extractor extractor) throws IOException {
+    final Path directory =
+        Configuration.INSTANCE.getModelCacheDir().toPath().resolve(checksum(url));
+    final Path file = directory.resolve(fileName);
+    if (Files.exists(file)) {
+      return file;
+    }
+
+    Files.createDirectories(directory);
+    try (FileChannel lockFile =
+            FileChannel.open(
+                directory.resolve(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock = lockFile.lock()) {
+      // Another process could have created the file while this one was waiting for the lock.
+      if (Files.exists(file)) {
+        return file;
+      }
+      final Path temporaryFile = directory.resolve(fileName + "." + UUID.randomUUID() + ".tmp");
+      // The extraction can run in a daemon thread, which is not given the chance to clean up.
+      temporaryFile.toFile().deleteOnExit();
+      try (InputStream model = url.openStream()) {
+        extractor.extract(model, temporaryFile);
+        temporaryFile.toFile().setReadOnly();
+        Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temporaryFile);
+      }
+    }
+    return file;
+  }
+
+  /**
+   * Returns a checksum of the content of the model at the given URL. The checksum of a model in a
+   * jar is given by the CRC-32 and the size stored in the jar, so that the model does not need to
+   * be read. Otherwise, the checksum is the SHA-256 digest of the model.
+   *
+   * @param url the URL of the model
+   * @return a checksum of the model, in hexadecimal
+   * @throws IOException if the model cannot be read
+   */
+  private static String checksum(URL url) throws IOException {
+    final URLConnection connection = url.openConnection();
+    if (connection instanceof JarURLConnection) {
+      final JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+      if (entry != null && entry.getCrc() != -1) {
+        return String.format("%08x-%d", entry.getCrc(), entry.getSize());
+      }
+    }
+
+    final MessageDigest digest = Caches.sha256();
+    try (InputStream model = new DigestInputStream(connection.getInputStream(), digest)) {
+      final byte[] buffer = new byte[1 << 16];
+      while (model.read(buffer) != -1) {
+        // Only the digest is needed.
+      }
+    }
+    final StringBuilder checksum = new StringBuilder();
+    for (byte b : digest.digest()) {
+      checksum.append(String.format("%02x", b));
+    }
+    return checksum.toString();
+  }
+}
@@ -0,0 +1,164 @@
+package org.toradocu.translator.semantic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Index of the pooled vectors of code element names, answering top-k nearest neighbour queries by
+ * Euclidean distance. Small sets of vectors are scanned exhaustively. Larger sets are partitioned
+ * into about sqrt(n) clusters with k-means (an inverted file index), and a query only scans the
+ * clusters whose centroids are nearest to the query vector, so that queries take sublinear time.
+ * Results are then approximate, since a near vector can lie in a cluster that is not scanned.
+ * Instances of this class are immutable and thread-safe.
+ */
+final class NameVectorIndex {
+
+  /** Minimum number of vectors for which the index is partitioned into clusters. */
+  static final int MIN_CLUSTERED_SIZE = 64;
+
+  /** Number of iterations of the k-means algorithm. */
+  private static final int KMEANS_ITERATIONS = 10;
+
+  /** The indexed vectors. Null elements are never returned by queries. */
+  private final float[][] vectors;
+
+  /** The centroids of the clusters. */
+  private final float[][] centroids;
+
+  /** The indices of the vectors in each cluster. */
+  private final int[][] clusters;
+
+  /**
+   * Creates an index of the given vectors.
+   *
+   * @param vectors the vectors to index, all of the same dimension; null elements are ignored
+   */
+  NameVectorIndex(List<float[]> vectors) {
+    this.vectors = vectors.toArray(new float[vectors.size()][]);
+    final List<Integer> indexed = new ArrayList<>();
+    for (int i = 0; i < this.vectors.length; i++) {
+      if (this.vectors[i] != null) {
+        indexed.add(i);
+      }
+    }
+    if (indexed.size() < MIN_CLUSTERED_SIZE) {
+      centroids = new float[1][];
+      clusters = new int[][] {toArray(indexed)};
+      return;
+    }
+
+    // Start from evenly spaced vectors, so that the index does not depend on random choices.
+    final int clusterCount = (int) Math.round(Math.sqrt(indexed.size()));
+    centroids = new float[clusterCount][];
+    for (int c = 0; c < clusterCount; c++) {
+      centroids[c] = this.vectors[indexed.get(c * indexed.size() / clusterCount)].clone();
+    }
+    final int[] assignments = new int[this.vectors.length];
+    for (int iteration = 0; iteration < KMEANS_ITERATIONS; iteration++) {
+      for (int i : indexed) {
+        assignments[i] = nearestCentroid(this.vectors[i]);
+      }
+      final float[][] sums = new float[clusterCount][centroids[0].length];
+      final int[] sizes = new int[clusterCount];
+      for (int i : indexed) {
+        add(sums[assignments[i]], this.vectors[i]);
+        sizes[assignments[i]]++;
+      }
+      for (int c = 0; c < clusterCount; c++) {
+        // Empty clusters keep their centroid.
+        if (sizes[c] > 0) {
+          for (int d = 0; d < sums[c].length; d++) {
+            centroids[c][d] = sums[c][d] / sizes[c];
+          }
+        }
+      }
+    }
+    final List<List<Integer>> members = new ArrayList<>();
+    for (int c = 0; c < clusterCount; c++) {
+      members.add(new ArrayList<>());
+    }
+    for (int i : indexed) {
+      members.get(nearestCentroid(this.vectors[i])).add(i);
+    }
+    clusters = new int[clusterCount][];
+    for (int c = 0; c < clusterCount; c++) {
+      clusters[c] = toArray(members.get(c));
+    }
+  }
+
+  /**
+   * Returns the indices of the (at most) {@code k} indexed vectors nearest to the given vector,
+   * from the nearest to the farthest. Vectors at the same distance are returned in index order.
+   *
+   * @param query the query vector
+   * @param k the maximum number of vectors to return
+   * @return the indices, in the list given to the constructor, of the nearest vectors
+   */
+  List<Integer> nearest(float[] query, int k) {
+    final Integer[] clusterOrder = new Integer[clusters.length];
+    for (int c = 0; c < clusters.length; c++) {
+      clusterOrder[c] = c;
+    }
+    if (clusters.length > 1) {
+      final double[] clusterDistances = new double[clusters.length];
+      for (int c = 0; c < clusters.length; c++) {
+        clusterDistances[c] = squaredDistance(query, centroids[c]);
+      }
+      Arrays.sort(clusterOrder, Comparator.comparingDouble(c -> clusterDistances[c]));
+    }
+
+    // Scan at least sqrt(clusters) clusters, and enough clusters to find k vectors.
+    final int minProbes = (int) Math.ceil(Math.sqrt(clusters.length));
+    final List<Integer> scanned = new ArrayList<>();
+    for (int probe = 0; probe < clusters.length; probe++) {
+      if (probe >= minProbes && scanned.size() >= k) {
+        break;
+      }
+      for (int i : clusters[clusterOrder[probe]]) {
+        scanned.add(i);
+      }
+    }
+    final double[] distances = new double[vectors.length];
+    for (int i : scanned) {
+      distances[i] = squaredDistance(query, vectors[i]);
+    }
+    scanned.sort(
+        Comparator.<Integer>comparingDouble(i -> distances[i]).thenComparing(Integer::intValue));
+    return scanned.subList(0, Math.min(k, scanned.size()));
+  }
+
+  /** Returns the index of the centroid nearest to the given vector. */
+  private int nearestCentroid(float[] vector) {
+    int nearest = 0;
+    double nearestDistance = Double.MAX_VALUE;
+    for (int c = 0; c < centroids.length; c++) {
+      final double distance = squaredDistance(vector, centroids[c]);
+      if (distance < nearestDistance) {
+        nearest = c;
+        nearestDistance = distance;
+      }
+    }
+    return nearest;
+  }
+
+  private static void add(float[] sum, float[] vector) {
+    for (int d = 0; d < sum.length; d++) {
+      sum[d] += vector[d];
+    }
+  }
+
+  private static double squaredDistance(float[] vector1, float[] vector2) {
+    double sum = 0;
+    for (int d = 0; d < vector1.length; d++) {
+      final double difference = vector1[d] - vector2[d];
+      sum += difference * difference;
+    }
+    return sum;
+  }
+
+  private static int[] toArray(List<Integer> list) {
+    return list.stream().mapToInt(Integer::intValue).toArray();
+  }
+}
@@ -0,0 +1,235 @@
+package org.toradocu.translator.semantic;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Log of the distances computed by the semantic matcher, for diagnostic purposes. Every run writes
+ * its own CSV file, named after the run identifier, so that concurrent runs never share a file.
+ * Records are queued in a bounded queue and written to a buffered file by a background thread, so
+ * that the matcher does not wait for the file system unless the queue is full.
+ */
+final class SemanticDiagnostics {
+
+  private static final Logger log = LoggerFactory.getLogger(SemanticDiagnostics.class);
+
+  /** Maximum number of records waiting to be written. */
+  private static final int QUEUE_CAPACITY = 10_000;
+
+  /** Separator of the fields of a record. */
+  private static final String SEPARATOR = ";";
+
+  /** First line of the CSV file, with the names of the fields. */
+  static final String HEADER =
+      String.join(
+          SEPARATOR,
+          "run",
+          "class",
+          "member",
+          "comment",
+          "candidate",
+          "candidate_words",
+          "comment_size",
+          "lower_bound",
+          "distance");
+
+  /** Record put in the queue to stop the writer thread. */
+  private static final String END = new String("END");
+
+  /** Identifier of this run, written in every record. */
+  private final String runId;
+
+  /** The CSV file. */
+  private final File file;
+
+  /** Records waiting to be written. */
+  private final BlockingQueue<String> records = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+  /** Writer of the CSV file, used only by the writer thread. Null if writing failed. */
+  private Writer writer;
+
+  /** Thread writing the queued records to the CSV file. */
+  private final Thread writerThread;
+
+  /** Whether {@code close} has been called. */
+  private volatile boolean closed;
+
+  private SemanticDiagnostics(String runId, File file, Writer writer) {
+    this.runId = runId;
+    this.file = file;
+    this.writer = writer;
+    writerThread = new Thread(this::writeRecords, "semantic-diagnostics");
+    writerThread.setDaemon(true);
+  }
+
+  /**
+   * Creates the CSV file of a new run in the given directory, and starts the thread writing it. The
+   * file is closed when the JVM shuts down.
+   *
+   * @param directory the directory of the CSV file, created if it does not exist
+   * @return the log of the distances computed in this run
+   * @throws IOException if the CSV file cannot be created
+   */
+  static SemanticDiagnostics open(File directory) throws IOException {
+    final String runId =
+        new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())
+            + "-"
+            + UUID.randomUUID().toString().substring(0, 8);
+    final File file = new File(directory, "wmd-distances-" + runId + ".csv");
+    Files.createDirectories(directory.toPath());
+    final BufferedWriter writer =
+        Files.newBufferedWriter(
+            file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+    writer.write(HEADER + "\n");
+
+    final SemanticDiagnostics diagnostics = new SemanticDiagnostics(runId, file, writer);
+    diagnostics.writerThread.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(diagnostics::close));
+    return diagnostics;
+  }
+
+  /**
+   * Returns the CSV file of this run.
+   *
+   * @return the CSV file of this run
+   */
+  File getFile() {
+    return file;
+  }
+
+  /**
+   * Logs the comparison between a comment and a candidate code element.
+   *
+   * @param className the name of the class of the method whose comment is being translated
+   * @param member the signature of the method whose comment is being translated
+   * @param comment the words of the comment, separated by spaces
+   * @param candidate the candidate code element
+   * @param candidateWords the words of the name of the candidate, separated by spaces
+   * @param commentSize the number of words of the comment
+   * @param lowerBound the lower bound of the distance, or null if it was not computed
+   * @param distance the distance, or null if it was not computed
+   */
+  void record(
+      String className,
+      String member,
+      String comment,
+      String candidate,
+      String candidateWords,
+      int commentSize,
+      Double lowerBound,
+      Double distance) {
+    if (closed) {
+      return;
+    }
+    final String record =
+        String.join(
+                SEPARATOR,
+                runId,
+                escape(className),
+                escape(member),
+                escape(comment),
+                escape(candidate),
+                escape(candidateWords),
+                String.valueOf(commentSize),
+                lowerBound == null ? "" : lowerBound.toString(),
+                distance == null ? "" : distance.toString())
+            + "\n";
+    try {
+      records.put(record);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Writes the queued records and closes the CSV file. Records logged afterwards are discarded. */
+  synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      records.put(END);
+      writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Writes the queued records until {@code END} is found. The file is flushed whenever the queue is
+   * empty. If writing fails, the following records are discarded.
+   */
+  private void writeRecords() {
+    final List<String> batch = new ArrayList<>();
+    while (true) {
+      try {
+        batch.add(records.take());
+      } catch (InterruptedException e) {
+        continue;
+      }
+      records.drainTo(batch);
+      for (String record : batch) {
+        if (record == END) {
+          closeWriter();
+          records.clear();
+          return;
+        }
+        if (writer != null) {
+          try {
+            writer.write(record);
+          } catch (IOException e) {
+            log.warn("Unable to write semantic diagnostics to " + file, e);
+            closeWriter();
+          }
+        }
+      }
+      batch.clear();
+      if (writer != null && records.isEmpty()) {
+        try {
+          writer.flush();
+        } catch (IOException e) {
+          log.warn("Unable to write semantic diagnostics to " + file, e);
+          closeWriter();
+        }
+      }
+    }
+  }
+
+  /** Closes the CSV file, if it is still open. */
+  private void closeWriter() {
+    if (writer != null) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        log.warn("Unable to close " + file, e);
+      }
+      writer = null;
+    }
+  }
+
+  /** Quotes the given field if it contains the separator, quotes, or line separators. */
+  private static String escape(String field) {
+    if (field.contains(SEPARATOR)
+        || field.contains("\"")
+        || field.contains("\n")
+        || field.contains("\r")) {
+      return "\"" + field.replace("\"", "\"\"") + "\"";
+    }
+    return field;
+  }
+}
@@ -1,46 +1,105 @@
 package org.toradocu.translator.semantic;
 
-import com.crtomirmajer.wmd4j.WordMovers;
-import edu.stanford.nlp.ling.CoreLabel;
-import java.io.FileWriter;
+import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.translator.*;
+import org.toradocu.util.Caches;
+import org.toradocu.util.StringListCache;
 
 /**
  * Main component. Contains all the methods to compute the {@code SemantichMatch}es for a given
  * class. This implements the "basic" semantic semantic, i.e. the one that uses plain vector sums.
- * Other kinds of matcher will extend this class.
+ * Other kinds of matcher will extend this class. Instances of this class do not keep any state
+ * between matches, and can be shared among threads.
  */
 public class SemanticMatcher {
 
+  private static final Logger log = LoggerFactory.getLogger(SemanticMatcher.class);
+
   /**
    * Tells whether the semantic matching is enabled or not according to configuration parameters.
    */
-  private static boolean enabled;
+  private static volatile boolean enabled;
 
   /**
    * List of words to be ignored in the comment and code element name when performing semantic
    * matching.
    */
-  private final ArrayList<String> stopwords;
+  private final List<String> stopwords;
 
   /**
    * Threshold up to which a similarity distance is considered acceptable. Zero is perfect
    * similarity.
    */
-  private float wmdThreshold;
+  private final float wmdThreshold;
+
+  /** Lemmatized words of the code element names encountered so far, by lemmatizer and name. */
+  private static final Map<Lemmatizer, Map<String, List<String>>> codeElementNameWords =
+      new EnumMap<>(Lemmatizer.class);
+
+  static {
+    for (Lemmatizer lemmatizer : Lemmatizer.values()) {
+      codeElementNameWords.put(lemmatizer, new ConcurrentHashMap<>());
+    }
+  }
+
+  /** Creation of the engine computing Word Mover's Distances, shared by all the matchers. */
+  private static final FutureTask<WordMoversDistance> wordMovers =
+      new FutureTask<>(SemanticMatcher::createWordMovers);
+
+  /** Whether the warm-up thread creating {@code wordMovers} has been started. */
+  private static final AtomicBoolean warmUpStarted = new AtomicBoolean();
+
+  /** Maximum number of indexes kept in {@code nameIndexes}. */
+  private static final int MAX_CACHED_INDEXES = 64;
+
+  /**
+   * Indexes of the vectors of candidate code element names, by list of names, least recently used
+   * first. Every index holds a vector per name, hence the small bound: the candidates of the
+   * comments of a class are usually the same few lists of names.
+   */
+  private static final Map<List<String>, NameVectorIndex> nameIndexes =
+      Caches.lruCache(MAX_CACHED_INDEXES);
+
+  /** Maximum number of matches returned by {@code runSemanticMatch}. */
+  private static final int MAX_MATCHES = 5;
+
+  /** Number of matches returned by {@code runSemanticMatch} when more than MAX_MATCHES match. */
+  private static final int MATCHES_WHEN_TRUNCATED = 4;
+
+  /**
+   * Version of the way code element names are split into words and lemmatized. Increase it whenever
+   * {@code lemmatizeCodeElementName} changes, to invalidate the persistent cache of name words.
+   */
+  private static final int NAME_WORDS_VERSION = 1;
+
+  /**
+   * Version of the semantic matching algorithm, i.e. of {@code wmdMatch} and of the code it relies
+   * on (e.g., the thresholds, the stop words, the selection of the candidates, and the number of
+   * matches returned). Increase it whenever the algorithm changes, to invalidate the persistent
+   * cache of semantic matches.
+   */
+  private static final int MATCH_VERSION = 1;
 
   public SemanticMatcher(boolean stopWordsRemoval, float distanceThreshold, float wmdThreshold) {
     this.wmdThreshold = wmdThreshold;
 
     // TODO can this naive list be improved?
     stopwords =
-        new ArrayList<>(
+        Collections.unmodifiableList(
             Arrays.asList(
                 "true",
                 "false",
@@ -72,8 +131,146 @@ public class SemanticMatcher {
     return enabled;
   }
 
+  /**
+   * Enables or disables semantic matching. When semantic matching is enabled, the GloVe model
+   * starts loading in a background thread, so that it is likely ready when the first comment that
+   * needs semantic matching is translated.
+   *
+   * @param enabled true to enable semantic matching, false otherwise
+   */
   public static void setEnabled(boolean enabled) {
     SemanticMatcher.enabled = enabled;
+    if (enabled && warmUpStarted.compareAndSet(false, true)) {
+      Thread warmUp = new Thread(wordMovers, "semantic-model-warm-up");
+      // The warm-up must not delay the end of runs that do not need the model. It keeps the normal
+      // priority, since the first comment that needs the model waits for it.
+      warmUp.setDaemon(true);
+      warmUp.start();
+    }
+  }
+
+  /**
+   * Returns the engine computing Word Mover's Distances with the GloVe model, shared by all the
+   * matchers. The engine is created the first time this method is called, unless the warm-up
+   * started by {@code setEnabled} already created it; if the warm-up is in progress, this method
+   * waits for it to complete.
+   *
+   * @return the engine computing Word Mover's Distances, or null if the GloVe model is not
+   *     available
+   */
+  private static WordMoversDistance getWordMovers() {
+    // Does nothing if the engine is being (or has already been) created by another thread.
+    wordMovers.run();
+    try {
+      return wordMovers.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      log.error("Unable to load the GloVe model", e.getCause());
+      return null;
+    }
+  }
+
+  /**
+   * Lazily initialized holder of the persistent cache of the results of {@code wmdMatch}, null if
+   * disabled. Cached results are discarded when Toradocu, the parser, the matching algorithm, or
+   * the GloVe model change.
+   */
+  private static final class MatchCacheHolder {
+    private static final StringListCache INSTANCE = openMatchCache();
+
+    private static StringListCache openMatchCache() {
+      File directory = Configuration.INSTANCE.getParseCacheDir();
+      WordMoversDistance wm = directory == null ? null : getWordMovers();
+      if (wm == null) {
+        return null;
+      }
+      try {
+        return StringListCache.open(
+            directory,
+            "semantic-matches.txt",
+            MATCH_VERSION
+                + " "
+                + NAME_WORDS_VERSION
+                + " "
+                + StanfordParser.getVersion()
+                + " "
+                + wm.getEmbeddings().checksum());
+      } catch (IOException e) {
+        log.warn("Unable to open the semantic match cache in " + directory, e);
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Lazily initialized holder of the persistent cache of code element name words, for the
+   * lemmatizer selected when the cache is opened.
+   */
+  private static final class LemmaCacheHolder {
+    private static final Lemmatizer LEMMATIZER = Lemmatizer.fromConfiguration();
+    private static final StringListCache INSTANCE = openLemmaCache();
+
+    /** Returns the cache of the words lemmatized by the given lemmatizer, or null if disabled. */
+    private static StringListCache get(Lemmatizer lemmatizer) {
+      return lemmatizer == LEMMATIZER ? INSTANCE : null;
+    }
+
+    /**
+     * Opens the cache in the parse cache directory, or returns null if there is no such directory.
+     */
+    private static StringListCache openLemmaCache() {
+      File directory = Configuration.INSTANCE.getParseCacheDir();
+      if (directory == null) {
+        return null;
+      }
+      try {
+        return StringListCache.open(
+            directory,
+            "name-lemmas.txt",
+            NAME_WORDS_VERSION + " " + StanfordParser.getVersion() + " " + LEMMATIZER);
+      } catch (IOException e) {
+        log.warn("Unable to open the lemma cache in " + directory + ", the cache is disabled", e);
+        return null;
+      }
+    }
+  }
+
+  /** Lazily initialized holder of the log of the computed distances, null if disabled. */
+  private static final class DiagnosticsHolder {
+    private static final SemanticDiagnostics INSTANCE = openDiagnostics();
+
+    private static SemanticDiagnostics openDiagnostics() {
+      File directory = Configuration.INSTANCE.getSemanticDiagnosticsDir();
+      if (directory == null) {
+        return null;
+      }
+      try {
+        SemanticDiagnostics diagnostics = SemanticDiagnostics.open(directory);
+        log.info("Logging semantic matcher distances to " + diagnostics.getFile());
+        return diagnostics;
+      } catch (IOException e) {
+        log.warn("Unable to log semantic matcher distances in " + directory, e);
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Creates the engine computing Word Mover's Distances with the GloVe model.
+   *
+   * @return the engine computing Word Mover's Distances, or null if the GloVe model is not
+   *     available
+   */
+  private static WordMoversDistance createWordMovers() {
+    try {
+      EmbeddingStore embeddings = GloveModelWrapper.getInstance().getGloveEmbeddings();
+      return embeddings == null ? null : new WordMoversDistance(embeddings);
+    } catch (URISyntaxException e) {
+      e.printStackTrace();
+      return null;
+    }
   }
 
   /**
@@ -98,8 +295,87 @@ public class SemanticMatcher {
       String comment)
       throws IOException {
 
+    Set<String> stopwords = new HashSet<>(this.stopwords);
     stopwords.add(method.getDeclaringClass().getSimpleName().toLowerCase());
-    return wmdMatch(comment, proposition, subject, method, codeElements);
+    StringListCache matchCache = MatchCacheHolder.INSTANCE;
+    if (matchCache == null || codeElements == null) {
+      return wmdMatch(comment, proposition, subject, method, codeElements, stopwords);
+    }
+
+    // Matches are cached as the indices of the matching code elements in codeElements, with their
+    // distance. Cached matches are not used while distances are logged, so that the distances of
+    // every comment are logged.
+    String key = matchKey(codeElements, method, subject, proposition, comment, stopwords);
+    List<String> cachedMatches = DiagnosticsHolder.INSTANCE == null ? matchCache.get(key) : null;
+    LinkedHashMap<CodeElement<?>, Double> matches = new LinkedHashMap<>();
+    if (cachedMatches != null) {
+      for (String cachedMatch : cachedMatches) {
+        String[] fields = cachedMatch.split(":");
+        matches.put(codeElements.get(Integer.parseInt(fields[0])), Double.valueOf(fields[1]));
+      }
+      return matches;
+    }
+    matches = wmdMatch(comment, proposition, subject, method, codeElements, stopwords);
+    List<String> matchesToCache = new ArrayList<>();
+    for (Map.Entry<CodeElement<?>, Double> match : matches.entrySet()) {
+      matchesToCache.add(codeElements.indexOf(match.getKey()) + ":" + match.getValue());
+    }
+    matchCache.put(key, matchesToCache);
+    return matches;
+  }
+
+  /**
+   * Returns a digest of all the inputs that determine the result of {@code wmdMatch}: the
+   * configuration of the matcher, the words of the comment and of the method, and the names and
+   * kinds of the code elements, in order.
+   *
+   * @param codeElements the candidate code elements
+   * @param method the method which the comment to match belongs
+   * @param subject the subject {@code CodeElement}
+   * @param proposition the {@code Proposition} extracted from the comment
+   * @param comment the comment text
+   * @param stopwords the words to ignore in the comment and in the code element names
+   * @return the Base64 encoding of the SHA-256 digest of the inputs of the semantic match
+   */
+  private String matchKey(
+      List<CodeElement<?>> codeElements,
+      DocumentedExecutable method,
+      CodeElement<?> subject,
+      Proposition proposition,
+      String comment,
+      Set<String> stopwords) {
+    StringBuilder inputs = new StringBuilder();
+    inputs.append(new TreeSet<>(stopwords)).append('\n');
+    inputs.append(wmdThreshold).append(' ').append(Configuration.INSTANCE.getSemanticTopK());
+    inputs.append(' ').append(Lemmatizer.fromConfiguration()).append('\n');
+    inputs.append(comment).append('\n');
+    inputs.append(method.getName()).append('\n');
+    boolean receiverCandidates = false;
+    for (CodeElement<?> codeElement : codeElements) {
+      if (codeElement instanceof MethodCodeElement) {
+        MethodCodeElement methodCodeElement = (MethodCodeElement) codeElement;
+        inputs.append("method ").append(methodCodeElement.getJavaCodeElement().getName());
+        if (methodCodeElement.getReceiver().equals(Configuration.RECEIVER)) {
+          inputs.append(" receiver");
+          receiverCandidates = true;
+        }
+      } else if (codeElement instanceof GeneralCodeElement) {
+        inputs.append("element ").append(codeElement.getIdentifiers().stream().findFirst().get());
+      } else {
+        inputs.append("other");
+      }
+      inputs.append('\n');
+    }
+    if (receiverCandidates) {
+      // Whether candidates with the receiver are compared (see wmdMatch).
+      inputs.append(
+          proposition.getSubject().isPassive()
+              || subject.toString().startsWith(Configuration.RECEIVER + ":"));
+    }
+
+    final MessageDigest digest = Caches.sha256();
+    byte[] bytes = digest.digest(inputs.toString().getBytes(StandardCharsets.UTF_8));
+    return Base64.getEncoder().encodeToString(bytes);
   }
 
   /**
@@ -124,26 +400,25 @@ public class SemanticMatcher {
    * Parse the original tag comment. Special characters are removed. Then the comment is normalized
    * to lower case and lemmatization is applied. As a last step, stopwords are removed.
    *
+   * @param stopwords the words to remove
    * @return the parsed comment in form of array of strings (words retained from the original
    *     comment)
    */
-  private List<String> parseComment(String comment) {
+  private List<String> parseComment(String comment, Set<String> stopwords) {
     comment = comment.replaceAll("[^A-Za-z0-9 ]", "").toLowerCase();
 
     ArrayList<String> wordComment = new ArrayList<String>(Arrays.asList(comment.split(" ")));
     int index = 0;
-    List<CoreLabel> lemmas = StanfordParser.lemmatize(comment);
-    for (CoreLabel lemma : lemmas) {
-      if (lemma != null) {
-        if (index < wordComment.size()) {
-          wordComment.remove(index);
-        }
-        wordComment.add(index, lemma.lemma());
+    List<String> lemmas = Lemmatizer.fromConfiguration().lemmatize(comment);
+    for (String lemma : lemmas) {
+      if (index < wordComment.size()) {
+        wordComment.remove(index);
       }
+      wordComment.add(index, lemma);
       index++;
     }
 
-    return this.removeStopWords(wordComment);
+    return removeStopWords(wordComment, stopwords);
   }
 
   /**
@@ -154,34 +429,27 @@ public class SemanticMatcher {
    * @param method the method to which the comment belongs
    * @param codeElements list of code elements for which computing the distance @return a map
    *     containing the best matches together with the distance computed in respect to the comment
+   * @param stopwords the words to ignore in the comment and in the code element names
    */
   private LinkedHashMap<CodeElement<?>, Double> wmdMatch(
       String comment,
       Proposition proposition,
       CodeElement<?> subjectCodeElement,
       DocumentedExecutable method,
-      List<CodeElement<?>> codeElements)
+      List<CodeElement<?>> codeElements,
+      Set<String> stopwords)
       throws IOException {
-    Map<CodeElement<?>, Double> distances = new LinkedHashMap<>();
-
-    FileWriter writer = new FileWriter("wmd-glove-distances.csv", true);
-
-    WordMovers wm = null;
-    try {
-      wm =
-          WordMovers.Builder()
-              .wordVectors(GloveModelWrapper.getInstance().getGloveTxtVectors())
-              .build();
-    } catch (URISyntaxException e) {
-      e.printStackTrace();
-    }
+    WordMoversDistance wm = getWordMovers();
 
     //    String subject = proposition.getSubject().getSubject();
-    List<String> commentWordSet = parseComment(comment);
+    List<String> commentWordSet = parseComment(comment, stopwords);
+    String parsedComment =
+        String.join(" ", commentWordSet).replaceAll("\\s+", " ").trim().toLowerCase();
+    float threshold = commentWordSet.size() > 8 ? 5.96f : wmdThreshold;
+    List<Candidate> candidates = new ArrayList<>();
     if (codeElements != null && !codeElements.isEmpty()) {
       for (CodeElement<?> codeElement : codeElements) {
-        // For each code element, compute the corresponding vector and compute the distance
-        // between it and the comment vector. Store the distances and filter them lately.
+        // For each code element, decide whether its distance from the comment is considered.
         String name;
         if (codeElement instanceof MethodCodeElement) {
           name = ((MethodCodeElement) codeElement).getJavaCodeElement().getName();
@@ -190,91 +458,212 @@ public class SemanticMatcher {
         } else {
           continue;
         }
-        double dist = 10;
         List<String> camelId = parseCodeElementName(name);
-        List<String> codeElementWordSet = removeStopWords(camelId);
+        List<String> codeElementWordSet = removeStopWords(camelId, stopwords);
         //        Set<String> codeElementWordSet = new HashSet<>(camelId);
 
-        String parsedComment =
-            String.join(" ", commentWordSet).replaceAll("\\s+", " ").trim().toLowerCase();
         String parsedCodeElement =
             String.join(" ", codeElementWordSet).replaceAll("\\s+", " ").trim().toLowerCase();
 
-        writer.append(parsedComment + ";");
-        writer.append(parsedCodeElement + ";");
-        writer.append(String.valueOf(commentWordSet.size()) + ";");
+        Candidate candidate = new Candidate(codeElement);
+        candidate.words = parsedCodeElement;
+        candidates.add(candidate);
 
         if (codeElement instanceof MethodCodeElement
             && !((MethodCodeElement) codeElement).getReceiver().equals(Configuration.RECEIVER)
             && !areComplementary((MethodCodeElement) codeElement, method)) {
-          try {
-            dist = wm.distance(parsedComment, parsedCodeElement);
-          } catch (Exception e) {
-            // do nothing
-          }
-          distances.put(codeElement, dist);
+          candidate.compared = true;
         } else if (codeElement instanceof MethodCodeElement
             && ((MethodCodeElement) codeElement).getReceiver().equals(Configuration.RECEIVER)
             && !areComplementary((MethodCodeElement) codeElement, method)) {
-          if (proposition.getSubject().isPassive()
-              || subjectCodeElement.toString().startsWith(Configuration.RECEIVER + ":")) {
-            try {
-              dist = wm.distance(parsedComment, parsedCodeElement);
-            } catch (Exception e) {
-              // do nothing
-            }
-            distances.put(codeElement, dist);
-          }
+          candidate.compared =
+              proposition.getSubject().isPassive()
+                  || subjectCodeElement.toString().startsWith(Configuration.RECEIVER + ":");
+        }
+      }
+    }
+
+    int topK = Configuration.INSTANCE.getSemanticTopK();
+    if (topK > 0 && wm != null) {
+      pruneDistantNames(wm, commentWordSet, candidates, topK);
+    }
+
+    // Prepare the computation of the distance between the remaining code elements and the comment,
+    // and compute a lower bound of the distance.
+    for (Candidate candidate : candidates) {
+      if (candidate.compared && !candidate.pruned) {
+        try {
+          candidate.comparison = wm.compare(parsedComment, candidate.words);
+          candidate.lowerBound = candidate.comparison.lowerBound();
+        } catch (Exception e) {
+          // do nothing: the distance remains the default one
         }
-        writer.append(String.valueOf(dist) + "\n");
       }
     }
-    writer.flush();
-    writer.close();
-    return retainMatches(commentWordSet, method.getSignature(), distances);
+
+    // Compute the exact distances starting from the most promising candidates. A candidate is
+    // discarded without computing its distance when its lower bound exceeds the threshold, or when
+    // it could not be among the matches returned by retainMatches anyway.
+    List<Candidate> promisingCandidates = new ArrayList<>();
+    for (Candidate candidate : candidates) {
+      if (candidate.comparison != null) {
+        promisingCandidates.add(candidate);
+      }
+    }
+    promisingCandidates.sort(Comparator.comparingDouble(c -> c.lowerBound));
+    PriorityQueue<Double> bestDistances = new PriorityQueue<>(Collections.reverseOrder());
+    int retainedCandidates = 0;
+    for (Candidate candidate : promisingCandidates) {
+      if (candidate.lowerBound > threshold
+          || (retainedCandidates > MAX_MATCHES && candidate.lowerBound > bestDistances.peek())) {
+        candidate.pruned = true;
+        continue;
+      }
+      try {
+        candidate.distance = candidate.comparison.distance();
+      } catch (Exception e) {
+        // do nothing: the distance remains the default one
+      }
+      if (candidate.distance <= threshold) {
+        retainedCandidates++;
+        bestDistances.add(candidate.distance);
+        if (bestDistances.size() > MATCHES_WHEN_TRUNCATED) {
+          bestDistances.poll();
+        }
+      }
+    }
+
+    Map<CodeElement<?>, Double> distances = new LinkedHashMap<>();
+    SemanticDiagnostics diagnostics = DiagnosticsHolder.INSTANCE;
+    for (Candidate candidate : candidates) {
+      if (candidate.compared && !candidate.pruned) {
+        distances.put(candidate.codeElement, candidate.distance);
+      }
+      if (diagnostics != null) {
+        diagnostics.record(
+            method.getDeclaringClass().getName(),
+            method.getSignature(),
+            parsedComment,
+            candidate.codeElement.toString(),
+            candidate.words,
+            commentWordSet.size(),
+            candidate.comparison == null ? null : candidate.lowerBound,
+            candidate.compared && !candidate.pruned ? candidate.distance : null);
+      }
+    }
+    return retainMatches(threshold, method.getSignature(), distances);
+  }
+
+  /**
+   * Prunes the compared candidates whose names are not among the {@code topK} names nearest to the
+   * comment, according to the distance between the centroids of their word vectors. Indexes of many
+   * candidate names are built once per list of names, and then taken from {@code nameIndexes} as
+   * long as they stay in the cache. Indexes of fewer than {@code
+   * NameVectorIndex.MIN_CLUSTERED_SIZE} names are plain lists of vectors, and are not cached.
+   *
+   * @param wm the engine computing Word Mover's Distances
+   * @param commentWords the words of the comment
+   * @param candidates the candidates
+   * @param topK the number of candidates to retain
+   */
+  private static void pruneDistantNames(
+      WordMoversDistance wm, List<String> commentWords, List<Candidate> candidates, int topK) {
+    List<Candidate> compared = new ArrayList<>();
+    for (Candidate candidate : candidates) {
+      if (candidate.compared) {
+        compared.add(candidate);
+      }
+    }
+    float[] commentCentroid = wm.centroid(commentWords.toArray(new String[0]));
+    if (compared.size() <= topK || commentCentroid == null) {
+      return;
+    }
+
+    List<String> names = compared.stream().map(c -> c.words).collect(Collectors.toList());
+    NameVectorIndex index = nameIndexes.get(names);
+    if (index == null) {
+      List<float[]> vectors = new ArrayList<>();
+      for (String name : names) {
+        vectors.add(name.isEmpty() ? null : wm.centroid(name.split(" ")));
+      }
+      index = new NameVectorIndex(vectors);
+      if (names.size() >= NameVectorIndex.MIN_CLUSTERED_SIZE) {
+        nameIndexes.put(names, index);
+      }
+    }
+    for (Candidate candidate : compared) {
+      candidate.pruned = true;
+    }
+    for (int i : index.nearest(commentCentroid, topK)) {
+      compared.get(i).pruned = false;
+    }
   }
 
   /**
-   * Split code element name according to camel case
+   * Split code element name according to camel case. Words are lemmatized once per name, and then
+   * taken from {@code codeElementNameWords} (or from the persistent {@code LemmaCacheHolder}, if
+   * enabled).
    *
    * @param name code element name
    * @return list of words composing the code element name
    */
   private List<String> parseCodeElementName(String name) {
+    Lemmatizer lemmatizer = Lemmatizer.fromConfiguration();
+    Map<String, List<String>> nameWords = codeElementNameWords.get(lemmatizer);
+    List<String> words = nameWords.get(name);
+    if (words == null) {
+      StringListCache lemmaCache = LemmaCacheHolder.get(lemmatizer);
+      words = lemmaCache == null ? null : lemmaCache.get(name);
+      if (words == null) {
+        words = lemmatizeCodeElementName(name, lemmatizer);
+        if (lemmaCache != null) {
+          lemmaCache.put(name, words);
+        }
+      }
+      nameWords.put(name, Collections.unmodifiableList(words));
+    }
+    return new ArrayList<>(words);
+  }
+
+  /**
+   * Split code element name according to camel case and lemmatize the resulting words.
+   *
+   * @param name code element name
+   * @param lemmatizer the lemmatizer of the words
+   * @return list of words composing the code element name
+   */
+  private static List<String> lemmatizeCodeElementName(String name, Lemmatizer lemmatizer) {
     ArrayList<String> camelId = new ArrayList<>(Arrays.asList(name.split("(?<!^)(?=[A-Z])")));
     String joinedId = String.join(" ", camelId).replaceAll("\\s+", " ").trim().toLowerCase();
     int index = 0;
-    for (CoreLabel lemma : StanfordParser.lemmatize(joinedId)) {
-      if (lemma != null) {
-        if (index < camelId.size()) {
-          camelId.remove(index);
-        }
-        camelId.add(index, lemma.lemma());
+    for (String lemma : lemmatizer.lemmatize(joinedId)) {
+      if (index < camelId.size()) {
+        camelId.remove(index);
       }
+      camelId.add(index, lemma);
       index++;
     }
     return camelId;
   }
 
   /**
-   * Compute and instantiate the {@code SemantiMatch} computed for a tag.
+   * Compute and instantiate the {@code SemantiMatch} computed for a tag. At most {@code
+   * MAX_MATCHES} matches are returned; when more code elements match, only the best {@code
+   * MATCHES_WHEN_TRUNCATED} are returned.
    *
+   * @param threshold the distance above which code elements do not match
    * @param methodName name of the method the tag belongs to
    * @param distances the computed distance, for every possible code element candidate, from the
    *     comment
    */
   private LinkedHashMap<CodeElement<?>, Double> retainMatches(
-      List<String> commentWords, String methodName, Map<CodeElement<?>, Double> distances) {
-    if (commentWords.size() > 8) {
-      wmdThreshold = 5.96f;
-    }
-
+      float threshold, String methodName, Map<CodeElement<?>, Double> distances) {
     // Select as candidates only code elements that have a semantic distance below the chosen
     // threshold.
     LinkedHashMap<CodeElement<?>, Double> orderedDistances;
 
     if (!distances.isEmpty()) {
-      distances.values().removeIf(aDouble -> aDouble > wmdThreshold);
+      distances.values().removeIf(aDouble -> aDouble > threshold);
     }
 
     // Order the retained distances from the lowest (best one) to the highest (worst one).
@@ -287,19 +676,46 @@ public class SemanticMatcher {
                 Collectors.toMap(
                     Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
 
+    if (orderedDistances.size() > MAX_MATCHES) {
+      orderedDistances
+          .keySet()
+          .retainAll(new ArrayList<>(orderedDistances.keySet()).subList(0, MATCHES_WHEN_TRUNCATED));
+    }
     return orderedDistances;
   }
 
+  /** A code element whose name is compared with a comment. */
+  private static final class Candidate {
+    private final CodeElement<?> codeElement;
+    /** Words of the name of the code element, separated by spaces. */
+    private String words;
+    /** Whether the distance of the code element from the comment is considered. */
+    private boolean compared;
+    /** The comparison with the comment, or null if the distance cannot be computed. */
+    private WordMoversDistance.Comparison comparison;
+    /** Lower bound of the distance, if {@code comparison} is not null. */
+    private double lowerBound;
+    /** Distance from the comment, unless the candidate is pruned. */
+    private double distance = 10;
+    /** Whether the distance is not computed, because the candidate cannot match anyway. */
+    private boolean pruned;
+
+    private Candidate(CodeElement<?> codeElement) {
+      this.codeElement = codeElement;
+    }
+  }
+
   /**
    * Remove stopwords from given list of {@code String}s
    *
    * @param words list of {@code String}s to be cleaned
+   * @param stopwords the words to remove
    * @return the cleaned list of words
    */
-  private List<String> removeStopWords(List<String> words) {
+  private List<String> removeStopWords(List<String> words, Set<String> stopwords) {
     for (int i = 0; i < words.size(); i++) {
       String word = words.get(i).toLowerCase();
-      if (this.stopwords.contains(word)) {
+      if (stopwords.contains(word)) {
         words.remove(i);
         words.add(i, "");
       }
@@ -0,0 +1,334 @@
+package org.toradocu.translator.semantic;
+
+import com.crtomirmajer.wmd4j.emd.EarthMovers;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes the Word Mover's Distance between two texts with the word vectors of an {@link
+ * EmbeddingStore}. The distance is computed as in {@code com.crtomirmajer.wmd4j.WordMovers}, which
+ * requires instead the word vectors to be loaded in a DL4J model. Instances of this class are
+ * thread-safe, and are meant to be reused: they cache the vectors of the words they encounter.
+ */
+public class WordMoversDistance {
+
+  /** Maximum number of words whose vector (or absence of vector) is cached. */
+  private static final int MAX_CACHED_WORDS = 100_000;
+
+  /** Value cached for words that have no vector. */
+  private static final float[] NO_VECTOR = new float[0];
+
+  /** Word vectors used to compute distances. */
+  private final EmbeddingStore embeddings;
+
+  /** Cached vectors of the words encountered so far. */
+  private final Map<String, float[]> vectors = new ConcurrentHashMap<>();
+
+  /** Solver of the transportation problem. It keeps no state between computations. */
+  private final EarthMovers earthMovers = new EarthMovers();
+
+  /**
+   * Creates a new instance computing distances with the given word vectors.
+   *
+   * @param embeddings the word vectors used to compute distances
+   */
+  public WordMoversDistance(EmbeddingStore embeddings) {
+    this.embeddings = embeddings;
+  }
+
+  /**
+   * Returns the word vectors used to compute distances.
+   *
+   * @return the word vectors used to compute distances
+   */
+  public EmbeddingStore getEmbeddings() {
+    return embeddings;
+  }
+
+  /**
+   * Returns the Word Mover's Distance between two texts, made of words separated by single spaces.
+   * Words without a vector are ignored.
+   *
+   * @param text1 the first text
+   * @param text2 the second text
+   * @return the distance between {@code text1} and {@code text2}
+   * @throws IllegalArgumentException if one of the texts is empty
+   * @throws NoSuchElementException if one of the texts does not contain any word with a vector
+   */
+  public double distance(String text1, String text2) {
+    return compare(text1, text2).distance();
+  }
+
+  /**
+   * Prepares the computation of the Word Mover's Distance between two texts, made of words
+   * separated by single spaces. The returned comparison gives a cheap lower bound of the distance
+   * before the distance itself is computed. Words without a vector are ignored.
+   *
+   * @param text1 the first text
+   * @param text2 the second text
+   * @return the comparison between {@code text1} and {@code text2}
+   * @throws IllegalArgumentException if one of the texts is empty
+   * @throws NoSuchElementException if one of the texts does not contain any word with a vector
+   */
+  public Comparison compare(String text1, String text2) {
+    if (text1 == null || text1.isEmpty() || text2 == null || text2.isEmpty()) {
+      throw new IllegalArgumentException();
+    }
+    return compare(text1.split(" "), text2.split(" "));
+  }
+
+  /**
+   * Returns the Word Mover's Distance between two texts, given as arrays of words. Words without a
+   * vector are ignored.
+   *
+   * @param words1 the words of the first text
+   * @param words2 the words of the second text
+   * @return the distance between {@code words1} and {@code words2}
+   * @throws IllegalArgumentException if one of the texts is empty
+   * @throws NoSuchElementException if one of the texts does not contain any word with a vector
+   */
+  public double distance(String[] words1, String[] words2) {
+    return compare(words1, words2).distance();
+  }
+
+  /**
+   * Prepares the computation of the Word Mover's Distance between two texts, given as arrays of
+   * words. Words without a vector are ignored.
+   *
+   * @param words1 the words of the first text
+   * @param words2 the words of the second text
+   * @return the comparison between {@code words1} and {@code words2}
+   * @throws IllegalArgumentException if one of the texts is empty
+   * @throws NoSuchElementException if one of the texts does not contain any word with a vector
+   */
+  public Comparison compare(String[] words1, String[] words2) {
+    if (words1.length < 1 || words2.length < 1) {
+      throw new IllegalArgumentException();
+    }
+    final Map<String, float[]> vectors1 = new LinkedHashMap<>();
+    final Map<String, Integer> frequencies1 = bagOfWords(words1, vectors1);
+    final Map<String, float[]> vectors2 = new LinkedHashMap<>();
+    final Map<String, Integer> frequencies2 = bagOfWords(words2, vectors2);
+    if (vectors1.isEmpty() || vectors2.isEmpty()) {
+      throw new NoSuchElementException(
+          "Can't find any word vectors for given input text ..."
+              + Arrays.toString(words1)
+              + " | "
+              + Arrays.toString(words2));
+    }
+
+    final Set<String> allWords = new LinkedHashSet<>(vectors1.keySet());
+    allWords.addAll(vectors2.keySet());
+    final List<String> words = new ArrayList<>(allWords);
+    final double[][] distances = new double[words.size()][words.size()];
+    for (int i = 0; i < distances.length; i++) {
+      final float[] vector1 = vectors1.get(words.get(i));
+      for (int j = 0; j < distances.length; j++) {
+        final float[] vector2 = vectors2.get(words.get(j));
+        if (vector1 != null && vector2 != null) {
+          final double distance = euclideanDistance(vector1, vector2);
+          distances[i][j] = distance;
+          distances[j][i] = distance;
+        }
+      }
+    }
+    return new Comparison(
+        frequencies(words, frequencies1), frequencies(words, frequencies2), distances);
+  }
+
+  /**
+   * The transportation problem whose solution is the Word Mover's Distance between two texts: the
+   * weights of the words of the two texts, and the distances between the words.
+   */
+  public final class Comparison {
+
+    /** Weights of the words (of both texts) in the first text. */
+    private final double[] weights1;
+    /** Weights of the words (of both texts) in the second text. */
+    private final double[] weights2;
+    /** Distances between the words of the first text and the words of the second text. */
+    private final double[][] distances;
+
+    private Comparison(double[] weights1, double[] weights2, double[][] distances) {
+      this.weights1 = weights1;
+      this.weights2 = weights2;
+      this.distances = distances;
+    }
+
+    /**
+     * Returns the Word Mover's Distance between the two texts. This requires solving a
+     * transportation problem.
+     *
+     * @return the Word Mover's Distance between the two texts
+     */
+    public double distance() {
+      return earthMovers.distance(weights1, weights2, distances, 0);
+    }
+
+    /**
+     * Returns a lower bound of {@link #distance()}, computed in time linear in the number of word
+     * pairs. This is the relaxed Word Mover's Distance, in which every word of a text is moved
+     * entirely to its nearest word of the other text. When the texts have different total weights,
+     * {@code EarthMovers} only moves the whole weight of the lighter text (the excess weight of the
+     * other text is discarded at no cost), so only the relaxation of the lighter text is a bound.
+     *
+     * <p>The bound is computed on the same integer approximation of weights and distances that
+     * {@code EarthMovers} solves, so that it is never greater than {@link #distance()}, not even
+     * because of rounding errors.
+     *
+     * @return a lower bound of the Word Mover's Distance between the two texts
+     */
+    public double lowerBound() {
+      // Scale weights and distances to integers as EarthMovers.distance(double[], ...) does.
+      double sum1 = 0;
+      double sum2 = 0;
+      double maxDistance = distances[0][0];
+      for (int i = 0; i < weights1.length; i++) {
+        sum1 += weights1[i];
+        sum2 += weights2[i];
+        for (int j = 0; j < weights1.length; j++) {
+          if (distances[i][j] > maxDistance) {
+            maxDistance = distances[i][j];
+          }
+        }
+      }
+      final double weightScale = 1000000.0 / Math.max(sum1, sum2);
+      final double distanceScale = 1000000.0 / maxDistance;
+      final long[] scaledWeights1 = new long[weights1.length];
+      final long[] scaledWeights2 = new long[weights2.length];
+      long total1 = 0;
+      long total2 = 0;
+      for (int i = 0; i < weights1.length; i++) {
+        scaledWeights1[i] = (long) Math.floor(weights1[i] * weightScale + 0.5);
+        scaledWeights2[i] = (long) Math.floor(weights2[i] * weightScale + 0.5);
+        total1 += scaledWeights1[i];
+        total2 += scaledWeights2[i];
+      }
+
+      long bound1 = 0;
+      long bound2 = 0;
+      for (int i = 0; i < weights1.length; i++) {
+        long nearest1 = Long.MAX_VALUE;
+        long nearest2 = Long.MAX_VALUE;
+        for (int j = 0; j < weights1.length; j++) {
+          if (scaledWeights2[j] > 0) {
+            nearest1 = Math.min(nearest1, (long) Math.floor(distances[i][j] * distanceScale + 0.5));
+          }
+          if (scaledWeights1[j] > 0) {
+            nearest2 = Math.min(nearest2, (long) Math.floor(distances[j][i] * distanceScale + 0.5));
+          }
+        }
+        if (scaledWeights1[i] > 0) {
+          bound1 += scaledWeights1[i] * nearest1;
+        }
+        if (scaledWeights2[i] > 0) {
+          bound2 += scaledWeights2[i] * nearest2;
+        }
+      }
+      final long bound;
+      if (total1 == total2) {
+        bound = Math.max(bound1, bound2);
+      } else {
+        bound = total1 < total2 ? bound1 : bound2;
+      }
+      return bound / weightScale / distanceScale;
+    }
+  }
+
+  /**
+   * Returns the centroid of the vectors of the given words, i.e. the average of the vectors of the
+   * words that have one, counting every occurrence. The Euclidean distance between the centroids of
+   * two texts is a cheap approximation of their Word Mover's Distance.
+   *
+   * @param words the words of a text
+   * @return the centroid of the vectors of {@code words}, or null if no word has a vector
+   */
+  public float[] centroid(String[] words) {
+    float[] centroid = null;
+    int count = 0;
+    for (String word : words) {
+      final float[] vector = getVector(word);
+      if (vector != null) {
+        if (centroid == null) {
+          centroid = new float[vector.length];
+        }
+        for (int i = 0; i < vector.length; i++) {
+          centroid[i] += vector[i];
+        }
+        count++;
+      }
+    }
+    if (centroid != null) {
+      for (int i = 0; i < centroid.length; i++) {
+        centroid[i] /= count;
+      }
+    }
+    return centroid;
+  }
+
+  /**
+   * Collects the vectors of the given words that have one, and returns their number of occurrences.
+   *
+   * @param words the words of a text
+   * @param vectors map where the vector of each distinct word is stored, in order of appearance
+   * @return the number of occurrences of each distinct word that has a vector
+   */
+  private Map<String, Integer> bagOfWords(String[] words, Map<String, float[]> vectors) {
+    final Map<String, Integer> frequencies = new LinkedHashMap<>();
+    for (String word : words) {
+      if (vectors.containsKey(word)) {
+        frequencies.merge(word, 1, Integer::sum);
+      } else {
+        final float[] vector = getVector(word);
+        if (vector != null) {
+          vectors.put(word, vector);
+          frequencies.put(word, 1);
+        }
+      }
+    }
+    return frequencies;
+  }
+
+  /** Returns the vector of the given word, or null if the word has no vector. */
+  private float[] getVector(String word) {
+    float[] vector = vectors.get(word);
+    if (vector == null) {
+      vector = embeddings.getVector(word);
+      if (vector == null) {
+        vector = NO_VECTOR;
+      }
+      if (vectors.size() < MAX_CACHED_WORDS) {
+        vectors.put(word, vector);
+      }
+    }
+    return vector == NO_VECTOR ? null : vector;
+  }
+
+  /**
+   * Returns the weights of the given words in a text. As in wmd4j, the number of occurrences of a
+   * word is divided by the number of distinct words of the text.
+   */
+  private static double[] frequencies(List<String> words, Map<String, Integer> frequencies) {
+    final double[] weights = new double[words.size()];
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = frequencies.getOrDefault(words.get(i), 0) / (double) frequencies.size();
+    }
+    return weights;
+  }
+
+  private static double euclideanDistance(float[] vector1, float[] vector2) {
+    double sum = 0;
+    for (int i = 0; i < vector1.length; i++) {
+      final double difference = vector1[i] - vector2[i];
+      sum += difference * difference;
+    }
+    return Math.sqrt(sum);
+  }
+}
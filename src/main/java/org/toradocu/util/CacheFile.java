@@ -0,0 +1,195 @@
+package org.toradocu.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only file of a persistent cache, shared by the Toradocu runs that use the same cache
+ * directory, possibly at the same time. The file starts with a header identifying the version of
+ * the code that produced its entries, and continues with the entries themselves, whose format is up
+ * to the cache.
+ *
+ * <p>A process holds a lock on a separate lock file while it opens, validates, or appends to the
+ * cache file, and appends its entries at the end of the file as it is when the lock is acquired.
+ * The cache file is never truncated while other processes could be using it: a cache file with a
+ * different header is replaced atomically by a new file, so that processes still using the old file
+ * keep reading valid entries (and their appends no longer reach the new file). Only an incomplete
+ * entry at the end of the file (e.g., because a previous run has been killed) is truncated.
+ */
+public final class CacheFile {
+
+  private static final Logger log = LoggerFactory.getLogger(CacheFile.class);
+
+  /**
+   * Monitor held by the threads of this JVM while holding a lock on a lock file, since a JVM cannot
+   * hold two locks on the same file.
+   */
+  private static final Object FILE_LOCK_MONITOR = new Object();
+
+  /** Reader of the entries of a cache file. */
+  @FunctionalInterface
+  public interface EntryReader {
+
+    /**
+     * Reads the entries in the given buffer, i.e. the content of the cache file that follows its
+     * header. The buffer is a read-only view of the file, which stays valid for the rest of the
+     * run.
+     *
+     * @param entries the entries of the cache file
+     * @return the number of bytes of the complete entries at the beginning of {@code entries}
+     */
+    int read(ByteBuffer entries);
+  }
+
+  /** Channel of the lock file. */
+  private final FileChannel lockChannel;
+
+  /** Channel of the cache file. */
+  private FileChannel channel;
+
+  private CacheFile(FileChannel lockChannel) {
+    this.lockChannel = lockChannel;
+  }
+
+  /**
+   * Opens the given cache file, creating it (and its directory) if needed, and reads its entries.
+   * The lock file has the name of the cache file followed by {@code .lock}.
+   *
+   * @param file the cache file
+   * @param header the header of the cache file. A cache file with a different header is replaced by
+   *     an empty one
+   * @param reader the reader of the entries of the cache file
+   * @return the opened cache file
+   * @throws IOException if an I/O error occurs while opening or reading the cache file
+   */
+  public static CacheFile open(Path file, byte[] header, EntryReader reader) throws IOException {
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    final FileChannel lockChannel =
+        FileChannel.open(
+            file.resolveSibling(file.getFileName() + ".lock"),
+            StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE);
+    final CacheFile cacheFile = new CacheFile(lockChannel);
+    try {
+      synchronized (FILE_LOCK_MONITOR) {
+        try (FileLock lock = lockChannel.lock()) {
+          cacheFile.load(file, header, reader);
+        }
+      }
+    } catch (IOException e) {
+      if (cacheFile.channel != null) {
+        cacheFile.channel.close();
+      }
+      lockChannel.close();
+      throw e;
+    }
+    return cacheFile;
+  }
+
+  /**
+   * Appends the given entry at the end of the cache file. The entry is written while holding the
+   * lock on the lock file, so that entries of concurrent runs do not mix.
+   *
+   * @param entry the encoded entry to append
+   * @throws IOException if an I/O error occurs while writing the entry
+   */
+  public void append(ByteBuffer entry) throws IOException {
+    synchronized (FILE_LOCK_MONITOR) {
+      try (FileLock lock = lockChannel.lock()) {
+        // Other processes could have appended entries since this process last wrote to the file.
+        long position = channel.size();
+        while (entry.hasRemaining()) {
+          position += channel.write(entry, position);
+        }
+      }
+    }
+  }
+
+  /**
+   * Opens the cache file and reads its entries. Stale and corrupted contents are removed from the
+   * file. Must be called while holding the lock on the lock file.
+   *
+   * @param file the cache file
+   * @param header the expected header of the cache file
+   * @param reader the reader of the entries of the cache file
+   * @throws IOException if an I/O error occurs while reading or writing the cache file
+   */
+  private void load(Path file, byte[] header, EntryReader reader) throws IOException {
+    channel = openFile(file);
+    final long size = channel.size();
+    final ByteBuffer content =
+        size == 0 ? ByteBuffer.allocate(0) : channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    if (!startsWith(content, header)) {
+      if (size == 0) {
+        final ByteBuffer buffer = ByteBuffer.wrap(header);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      } else {
+        // Processes with another version could still have the file mapped: truncating the file
+        // would make them crash when they read their entries.
+        log.info("Discarding {}, which was created by a different version", file);
+        final Path newFile =
+            Files.createTempFile(
+                file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+          Files.write(newFile, header);
+          Files.move(newFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+          Files.deleteIfExists(newFile);
+        }
+        channel.close();
+        channel = openFile(file);
+      }
+      return;
+    }
+
+    content.position(header.length);
+    final long end = header.length + reader.read(content.slice());
+    if (end < size) {
+      // Entries are only appended while holding the lock, so the incomplete entry was written by
+      // a process that was killed, and no process reads it.
+      log.warn("Discarding incomplete entry at the end of {}", file);
+      channel.truncate(end);
+    }
+  }
+
+  /**
+   * Tells whether the given buffer starts with the given bytes.
+   *
+   * @param buffer a buffer
+   * @param prefix the expected first bytes of {@code buffer}
+   * @return true if the content of {@code buffer} starts with {@code prefix}
+   */
+  private static boolean startsWith(ByteBuffer buffer, byte[] prefix) {
+    if (buffer.remaining() < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (buffer.get(buffer.position() + i) != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Opens the given cache file for reading and writing, creating it if it does not exist.
+   *
+   * @param file the cache file
+   * @return the channel of {@code file}
+   * @throws IOException if the file cannot be opened
+   */
+  private static FileChannel openFile(Path file) throws IOException {
+    return FileChannel.open(
+        file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+  }
+}
@@ -0,0 +1,48 @@
+package org.toradocu.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This utility class contains the building blocks shared by the caches of Toradocu: bounded
+ * in-memory caches, and the digests that identify the entries of persistent caches.
+ */
+public final class Caches {
+
+  private Caches() {}
+
+  /**
+   * Returns a thread-safe map that retains only its {@code maxSize} most recently used entries.
+   *
+   * @param maxSize the maximum number of entries of the map
+   * @param <K> the type of the keys of the map
+   * @param <V> the type of the values of the map
+   * @return a new, empty LRU cache
+   */
+  public static <K, V> Map<K, V> lruCache(int maxSize) {
+    return Collections.synchronizedMap(
+        new LinkedHashMap<K, V>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+          }
+        });
+  }
+
+  /**
+   * Returns a new SHA-256 message digest.
+   *
+   * @return a new SHA-256 message digest
+   */
+  public static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256.
+      throw new AssertionError(e);
+    }
+  }
+}
@@ -1,20 +1,51 @@
 package org.toradocu.util;
 
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.sun.source.util.JavacTask;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Modifier;
+import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.mdkt.compiler.CompilationException;
-import org.mdkt.compiler.InMemoryJavaCompiler;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.toradocu.Toradocu;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
 import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.extractor.SourceIndex;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.Property;
 
@@ -23,6 +54,63 @@ public class ComplianceChecks {
   /** Logger of this class. */
   private static final Logger log = LoggerFactory.getLogger(ComplianceChecks.class);
 
+  /** The Java compiler, or null if it is not available. */
+  private static final JavaCompiler COMPILER = ToolProvider.getSystemJavaCompiler();
+
+  /**
+   * File managers of the compiler that are not in use. A file manager is used by one compiler task
+   * at a time, since file managers are not thread-safe, so there are at most as many file managers
+   * as checks that ran at the same time. File managers are closed by {@code closeFileManagers}.
+   */
+  private static final Deque<PooledFileManager> IDLE_FILE_MANAGERS = new ConcurrentLinkedDeque<>();
+
+  /** A file manager of the compiler, with the class path last set in it. */
+  private static final class PooledFileManager {
+    private final StandardJavaFileManager fileManager =
+        COMPILER.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+    /**
+     * The class path last set in {@code fileManager}. The class path returned by a file manager is
+     * not a list, and cannot be compared with a list of files.
+     */
+    private List<File> classpath;
+  }
+
+  /**
+   * Verdicts of the compliance checks of the current run, by key (see {@code verdictKey}). A
+   * verdict is either {@code "true"}, or {@code "false"} followed by the lines of the compilation
+   * errors.
+   */
+  private static final Map<String, List<String>> VERDICTS = new ConcurrentHashMap<>();
+
+  /** Fingerprints of the class paths of the checks, by list of class directories. */
+  private static final Map<List<URL>, String> CLASSPATH_FINGERPRINTS = new ConcurrentHashMap<>();
+
+  /**
+   * Lazily initialized holder of the persistent cache of the verdicts of the compliance checks,
+   * null if disabled. Cached verdicts are discarded when Toradocu or the Java platform change.
+   */
+  private static final class VerdictCacheHolder {
+    private static final StringListCache INSTANCE = openVerdictCache();
+
+    private static StringListCache openVerdictCache() {
+      File directory = Configuration.INSTANCE.getParseCacheDir();
+      if (directory == null) {
+        return null;
+      }
+      try {
+        return StringListCache.open(
+            directory,
+            "compliance-verdicts.txt",
+            Toradocu.class.getPackage().getImplementationVersion()
+                + " "
+                + System.getProperty("java.version"));
+      } catch (IOException e) {
+        log.warn("Unable to open the compliance verdict cache in " + directory, e);
+        return null;
+      }
+    }
+  }
+
   /**
    * Tries to compile the boolean condition in the given {@code Guard} and tells whether the
    * compilation was successful.
@@ -32,29 +120,7 @@ public class ComplianceChecks {
    * @return true if the condition was compilable, false otherwise
    */
   public static boolean isSpecCompilable(DocumentedExecutable method, Guard guard) {
-    if (Modifier.isPrivate(method.getDeclaringClass().getModifiers())) {
-      // if the target class is private we cannot apply compliance check.
-      return true;
-    }
-    SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
-    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
-    String sourceCode = sourceCodeBuilder.buildSource();
-    try {
-      compileSource(sourceCode);
-    } catch (CompilationException e) {
-      log.info(
-          "The following specification was generated but discarded:\n"
-              + guard.getConditionText()
-              + "\n"
-              + e.getLocalizedMessage()
-              + "\n");
-      return false;
-    } catch (ClassNotFoundException e) {
-      // ignore
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    return true;
+    return isCompilable(new SpecConditions(method, guard));
   }
 
   /**
@@ -68,53 +134,426 @@ public class ComplianceChecks {
    */
   public static boolean isPostSpecCompilable(
       DocumentedExecutable method, Guard guard, Property property) {
-    if (Modifier.isPrivate(method.getDeclaringClass().getModifiers())) {
+    return isCompilable(new SpecConditions(method, guard, property));
+  }
+
+  /**
+   * Tries to compile the boolean conditions of the given specification and tells whether the
+   * compilation was successful.
+   *
+   * @param spec the specification whose conditions must be checked for compliance
+   * @return true if the conditions were compilable, false otherwise
+   */
+  private static boolean isCompilable(SpecConditions spec) {
+    if (Modifier.isPrivate(spec.method.getDeclaringClass().getModifiers())) {
       // if the target class is private we cannot apply compliance check.
       return true;
     }
-    SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
-    String methodReturnType = method.getReturnType().getType().getTypeName();
-    if (!methodReturnType.equals("void")) {
-      sourceCodeBuilder.addArgument(methodReturnType, Configuration.RETURN_VALUE);
+    String sourceCode =
+        buildSourceCodeBuilder(spec.method, spec.guard, spec.property).buildSource();
+    String key = verdictKey(sourceCode);
+    List<String> verdict = getVerdict(key);
+    if (verdict != null) {
+      return isCompilable(spec, verdict);
     }
-    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
-    addConditionCodeInformation(method, property.getConditionText(), sourceCodeBuilder);
-    String sourceCode = sourceCodeBuilder.buildSource();
     try {
-      compileSource(sourceCode);
-    } catch (CompilationException e) {
-      log.info(
-          "The following specification was generated but discarded:\n"
-              + guard.getConditionText()
-              + " ? "
-              + property.getConditionText()
-              + "\n"
-              + e.getLocalizedMessage()
-              + "\n");
-      return false;
-    } catch (ClassNotFoundException e) {
-      // ignore
-    } catch (Exception e) {
+      List<Diagnostic<? extends JavaFileObject>> errors =
+          analyzeSources(Collections.singletonList(new SourceFile("GeneratedSpecs", sourceCode)));
+      if (!errors.isEmpty()) {
+        String message =
+            errors.stream().map(error -> error.getMessage(null)).collect(Collectors.joining("\n"));
+        putVerdict(key, message);
+        logDiscardedSpec(spec, message);
+        return false;
+      }
+      putVerdict(key, null);
+    } catch (RuntimeException e) {
       e.printStackTrace();
     }
     return true;
   }
 
   /**
-   * Invokes the in-memory compiler on the given source code.
+   * Tries to compile the boolean conditions of the given specifications, and tells which of them
+   * were compiled successfully. The conditions of each specification become a method of a generated
+   * class, and all the classes are compiled together by a single compiler invocation.
+   * Specifications share a generated class only when {@code isSpecCompilable} or {@code
+   * isPostSpecCompilable} would compile them in a class with the same package, type parameters, and
+   * imports, so that no condition compiles thanks to the imports of another one. Errors are then
+   * mapped back to the specifications they come from, so that a specification is compilable in the
+   * batch exactly when {@code isSpecCompilable} or {@code isPostSpecCompilable} would tell it is.
+   *
+   * <p>Since the compiler does not type-check any code when the source code has syntax errors,
+   * conditions are first parsed one by one with JavaParser, and the syntactically invalid ones are
+   * left out of the batch. Specifications are compiled one by one if the batch still has errors
+   * that cannot be mapped to a specification.
+   *
+   * @param specs the specifications whose conditions must be checked for compliance
+   * @return a list with, for each specification in {@code specs}, true if its conditions were
+   *     compilable, false otherwise
+   */
+  public static List<Boolean> areSpecsCompilable(List<SpecConditions> specs) {
+    final Boolean[] compilable = new Boolean[specs.size()];
+    // Keys of the verdicts of the specifications that are checked in this batch.
+    final String[] keys = new String[specs.size()];
+    // Methods of the specifications to compile, by the beginning of the class in which they would
+    // be compiled one by one (package, imports, and type parameters of the declaring class), and a
+    // source code builder for each such class.
+    final Map<String, Map<Integer, String>> methodsByClass = new LinkedHashMap<>();
+    final Map<String, SourceCodeBuilder> classBuilders = new HashMap<>();
+    for (int i = 0; i < specs.size(); i++) {
+      SpecConditions spec = specs.get(i);
+      if (Modifier.isPrivate(spec.method.getDeclaringClass().getModifiers())) {
+        // if the target class is private we cannot apply compliance check.
+        compilable[i] = true;
+        continue;
+      }
+      SourceCodeBuilder sourceCodeBuilder =
+          buildSourceCodeBuilder(spec.method, spec.guard, spec.property);
+      String key = verdictKey(sourceCodeBuilder.buildSource());
+      List<String> verdict = getVerdict(key);
+      if (verdict != null) {
+        compilable[i] = isCompilable(spec, verdict);
+        continue;
+      }
+      String method = sourceCodeBuilder.buildMethod("spec" + i);
+      try {
+        JavaParser.parseBodyDeclaration(method);
+      } catch (ParseProblemException e) {
+        putVerdict(key, e.getMessage());
+        logDiscardedSpec(spec, e.getMessage());
+        compilable[i] = false;
+        continue;
+      }
+      keys[i] = key;
+      String classDeclaration =
+          sourceCodeBuilder.buildClassDeclaration("GeneratedSpecs", sourceCodeBuilder.getImports());
+      methodsByClass.computeIfAbsent(classDeclaration, c -> new LinkedHashMap<>()).put(i, method);
+      classBuilders.putIfAbsent(classDeclaration, sourceCodeBuilder);
+    }
+
+    final List<JavaFileObject> compilationUnits = new ArrayList<>();
+    // Specification whose method starts at each position of each compilation unit.
+    final Map<JavaFileObject, NavigableMap<Long, Integer>> specPositions = new HashMap<>();
+    for (Map.Entry<String, Map<Integer, String>> methods : methodsByClass.entrySet()) {
+      final SourceCodeBuilder classBuilder = classBuilders.get(methods.getKey());
+      final String className = "GeneratedSpecs" + compilationUnits.size();
+      final StringBuilder source =
+          new StringBuilder(
+              classBuilder.buildClassDeclaration(className, classBuilder.getImports()));
+      final NavigableMap<Long, Integer> positions = new TreeMap<>();
+      for (Map.Entry<Integer, String> method : methods.getValue().entrySet()) {
+        positions.put((long) source.length(), method.getKey());
+        source.append(method.getValue()).append("\n");
+      }
+      source.append("}");
+      JavaFileObject compilationUnit = new SourceFile(className, source.toString());
+      compilationUnits.add(compilationUnit);
+      specPositions.put(compilationUnit, positions);
+    }
+
+    final Map<Integer, String> errors = new HashMap<>();
+    boolean unmappedErrors = false;
+    if (!compilationUnits.isEmpty()) {
+      try {
+        for (Diagnostic<? extends JavaFileObject> error : analyzeSources(compilationUnits)) {
+          NavigableMap<Long, Integer> positions = specPositions.get(error.getSource());
+          Map.Entry<Long, Integer> spec =
+              positions == null || error.getPosition() == Diagnostic.NOPOS
+                  ? null
+                  : positions.floorEntry(error.getPosition());
+          if (spec == null) {
+            unmappedErrors = true;
+            break;
+          }
+          errors.merge(spec.getValue(), error.getMessage(null), (m1, m2) -> m1 + "\n" + m2);
+        }
+      } catch (RuntimeException e) {
+        log.error("Unable to check the compliance of specifications in batch", e);
+        unmappedErrors = true;
+      }
+    }
+
+    final List<Boolean> result = new ArrayList<>();
+    for (int i = 0; i < specs.size(); i++) {
+      if (compilable[i] == null) {
+        SpecConditions spec = specs.get(i);
+        if (unmappedErrors) {
+          compilable[i] =
+              spec.property == null
+                  ? isSpecCompilable(spec.method, spec.guard)
+                  : isPostSpecCompilable(spec.method, spec.guard, spec.property);
+        } else if (errors.containsKey(i)) {
+          putVerdict(keys[i], errors.get(i));
+          logDiscardedSpec(spec, errors.get(i));
+          compilable[i] = false;
+        } else {
+          putVerdict(keys[i], null);
+          compilable[i] = true;
+        }
+      }
+      result.add(compilable[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Type-checks the given compilation units: the compiler parses and attributes the source code,
+   * and analyzes its data flow, but does not generate class files. Compiler tasks reuse the file
+   * managers of previous tasks, which keep the class path open and indexed between the checks.
    *
-   * @param sourceCode source code to be compiled
-   * @throws Exception if the compiler encounters problems
+   * @param compilationUnits the source files to check
+   * @return the compilation errors
    */
-  private static void compileSource(String sourceCode) throws Exception {
-    InMemoryJavaCompiler compiler = InMemoryJavaCompiler.newInstance();
-    compiler.ignoreWarnings();
-    List<String> classpath = new ArrayList<>();
+  private static List<Diagnostic<? extends JavaFileObject>> analyzeSources(
+      List<JavaFileObject> compilationUnits) {
+    if (COMPILER == null) {
+      throw new IllegalStateException("No Java compiler available");
+    }
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    // Report all the errors: errors are mapped back to the specifications they come from.
+    List<String> options = Arrays.asList("-Xmaxerrs", String.valueOf(Integer.MAX_VALUE));
+    PooledFileManager fileManager = acquireFileManager();
+    try {
+      JavacTask task =
+          (JavacTask)
+              COMPILER.getTask(
+                  null, fileManager.fileManager, diagnostics, options, null, compilationUnits);
+      task.analyze();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      IDLE_FILE_MANAGERS.push(fileManager);
+    }
+
+    List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        errors.add(diagnostic);
+      }
+    }
+    return errors;
+  }
+
+  /**
+   * Takes an idle file manager, or creates a new one if all are in use, and sets the class path of
+   * the classes under analysis in it. The file manager must be returned to {@code
+   * IDLE_FILE_MANAGERS} after use.
+   *
+   * @return a file manager that is not in use, with the class path of the classes under analysis
+   */
+  private static PooledFileManager acquireFileManager() {
+    List<File> classpath = new ArrayList<>();
     for (URL url : Configuration.INSTANCE.classDirs) {
-      classpath.add(url.getPath());
+      classpath.add(new File(url.getPath()));
+    }
+    PooledFileManager fileManager = IDLE_FILE_MANAGERS.poll();
+    if (fileManager == null) {
+      fileManager = new PooledFileManager();
+    }
+    // The class path changes only when Toradocu is run again in the same JVM (e.g., in tests).
+    if (!classpath.equals(fileManager.classpath)) {
+      try {
+        fileManager.fileManager.setLocation(StandardLocation.CLASS_PATH, classpath);
+      } catch (IOException e) {
+        IDLE_FILE_MANAGERS.push(fileManager);
+        throw new UncheckedIOException(e);
+      }
+      fileManager.classpath = classpath;
+    }
+    return fileManager;
+  }
+
+  /**
+   * Closes the file managers of the compiler that are not in use, releasing the class path archives
+   * they keep open. Compliance checks run afterwards create new file managers.
+   */
+  public static void closeFileManagers() {
+    PooledFileManager fileManager;
+    while ((fileManager = IDLE_FILE_MANAGERS.poll()) != null) {
+      try {
+        fileManager.fileManager.close();
+      } catch (IOException e) {
+        log.warn("Unable to close a file manager of the compiler", e);
+      }
+    }
+  }
+
+  /**
+   * Forgets the verdicts of the compliance checks of the current run, so that the next checks
+   * compile their conditions again (unless the persistent verdict cache is enabled).
+   */
+  static void clearVerdicts() {
+    VERDICTS.clear();
+  }
+
+  /**
+   * Returns the key of the verdict of the compliance check of the given source code: the digest of
+   * the source code and of the fingerprint of the class path, so that verdicts are reused for the
+   * same conditions of the same method, and as long as the classes under analysis do not change.
+   *
+   * @param sourceCode the source code exercising the conditions of a specification (see {@code
+   *     SourceCodeBuilder#buildSource})
+   * @return the key of the verdict of {@code sourceCode}
+   */
+  private static String verdictKey(String sourceCode) {
+    final MessageDigest digest = Caches.sha256();
+    List<URL> classDirs = new ArrayList<>(Configuration.INSTANCE.classDirs);
+    digest.update(
+        CLASSPATH_FINGERPRINTS
+            .computeIfAbsent(classDirs, ComplianceChecks::classpathFingerprint)
+            .getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    digest.update(sourceCode.getBytes(StandardCharsets.UTF_8));
+    return Base64.getEncoder().encodeToString(digest.digest());
+  }
+
+  /**
+   * Returns a fingerprint of the given class path: the path, size, and last modification time of
+   * every file in the class path.
+   *
+   * @param classDirs the class directories and jars of the class path
+   * @return a fingerprint of {@code classDirs}
+   */
+  private static String classpathFingerprint(List<URL> classDirs) {
+    StringBuilder fingerprint = new StringBuilder();
+    for (URL url : classDirs) {
+      Path root = new File(url.getPath()).toPath();
+      fingerprint.append(root).append("\n");
+      if (!Files.isDirectory(root)) {
+        appendFileFingerprint(fingerprint, root, root);
+        continue;
+      }
+      try (Stream<Path> files = Files.walk(root)) {
+        files
+            .filter(Files::isRegularFile)
+            .sorted()
+            .forEachOrdered(file -> appendFileFingerprint(fingerprint, root, file));
+      } catch (IOException | UncheckedIOException e) {
+        // The class directory cannot be read: the checks will fail anyway.
+        fingerprint.append(e).append("\n");
+      }
+    }
+    return fingerprint.toString();
+  }
+
+  /**
+   * Appends to the given fingerprint the path (relative to the given root), size, and last
+   * modification time of the given file.
+   *
+   * @param fingerprint the fingerprint of a class path
+   * @param root the class directory or jar containing {@code file}
+   * @param file a file of the class path
+   */
+  private static void appendFileFingerprint(StringBuilder fingerprint, Path root, Path file) {
+    File f = file.toFile();
+    fingerprint
+        .append(root.relativize(file))
+        .append(" ")
+        .append(f.length())
+        .append(" ")
+        .append(f.lastModified())
+        .append("\n");
+  }
+
+  /**
+   * Returns the verdict with the given key, computed in this run or (when the cache is enabled) in
+   * a previous run.
+   *
+   * @param key the key of a verdict
+   * @return the verdict with the given key, or null if no such verdict is known
+   */
+  private static List<String> getVerdict(String key) {
+    List<String> verdict = VERDICTS.get(key);
+    StringListCache cache = VerdictCacheHolder.INSTANCE;
+    if (verdict == null && cache != null) {
+      verdict = cache.get(key);
+      if (verdict != null) {
+        VERDICTS.put(key, verdict);
+      }
+    }
+    return verdict;
+  }
+
+  /**
+   * Stores the verdict with the given key.
+   *
+   * @param key the key of the verdict
+   * @param errors the compilation errors, or null if the conditions were compilable
+   */
+  private static void putVerdict(String key, String errors) {
+    List<String> verdict = new ArrayList<>();
+    if (errors == null) {
+      verdict.add("true");
+    } else {
+      verdict.add("false");
+      for (String line : errors.split("\r?\n")) {
+        verdict.add(line.replace('\t', ' '));
+      }
     }
-    compiler.useOptions("-cp", String.join(":", classpath));
-    compiler.compile("GeneratedSpecs", sourceCode);
+    VERDICTS.put(key, verdict);
+    StringListCache cache = VerdictCacheHolder.INSTANCE;
+    if (cache != null) {
+      cache.put(key, verdict);
+    }
+  }
+
+  /**
+   * Tells whether the conditions of the given specification are compilable according to the given
+   * verdict, logging the compilation errors of the discarded specifications.
+   *
+   * @param spec the specification whose conditions were checked for compliance
+   * @param verdict the verdict of the check of {@code spec}
+   * @return true if the conditions were compilable, false otherwise
+   */
+  private static boolean isCompilable(SpecConditions spec, List<String> verdict) {
+    if (verdict.get(0).equals("true")) {
+      return true;
+    }
+    logDiscardedSpec(spec, String.join("\n", verdict.subList(1, verdict.size())));
+    return false;
+  }
+
+  /**
+   * Logs that the given specification was discarded because its conditions are not compilable.
+   *
+   * @param spec the discarded specification
+   * @param message the compilation errors
+   */
+  private static void logDiscardedSpec(SpecConditions spec, String message) {
+    log.info(
+        "The following specification was generated but discarded:\n"
+            + spec.guard.getConditionText()
+            + (spec.property == null ? "" : " ? " + spec.property.getConditionText())
+            + "\n"
+            + message
+            + "\n");
+  }
+
+  /**
+   * Creates the {@code SourceCodeBuilder} of the source code exercising the conditions of a
+   * specification.
+   *
+   * @param method documented executable the specification belongs to
+   * @param guard the guard of the specification
+   * @param property the property of the specification, or null if it is a pre-specification or a
+   *     throws-specification
+   * @return a {@code SourceCodeBuilder} object that wraps the source code
+   */
+  private static SourceCodeBuilder buildSourceCodeBuilder(
+      DocumentedExecutable method, Guard guard, Property property) {
+    SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
+    if (property != null) {
+      String methodReturnType = method.getReturnType().getType().getTypeName();
+      if (!methodReturnType.equals("void")) {
+        sourceCodeBuilder.addArgument(methodReturnType, Configuration.RETURN_VALUE);
+      }
+    }
+    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
+    if (property != null) {
+      addConditionCodeInformation(method, property.getConditionText(), sourceCodeBuilder);
+    }
+    return sourceCodeBuilder;
   }
 
   /**
@@ -153,15 +592,10 @@ public class ComplianceChecks {
     while (matcher.find()) {
       String className = matcher.group(1);
 
-      Configuration configuration = Configuration.INSTANCE;
-      final String sourceFile =
-          configuration.sourceDir.toString()
-              + File.separator
-              + method.getDeclaringClass().getCanonicalName().replaceAll("\\.", File.separator)
-              + ".java";
       List<String> classesInPackage =
           JavadocExtractor.getClassesInSamePackage(
-              method.getDeclaringClass().getCanonicalName(), sourceFile);
+              method.getDeclaringClass().getName(),
+              SourceIndex.of(Configuration.INSTANCE.sourceDir));
       for (String classInPackage : classesInPackage) {
         if (classInPackage.endsWith("." + className)) {
           sourceCodeBuilder.addImport(classInPackage);
@@ -213,4 +647,53 @@ public class ComplianceChecks {
 
     return text;
   }
+
+  /** The conditions of a specification to be checked for compliance. */
+  public static final class SpecConditions {
+    /** Documented executable the specification belongs to. */
+    private final DocumentedExecutable method;
+    /** The guard of the specification. */
+    private final Guard guard;
+    /** The property of the specification, or null if it has none. */
+    private final Property property;
+
+    /**
+     * Creates the conditions of a pre-specification or of a throws-specification.
+     *
+     * @param method documented executable the specification belongs to
+     * @param guard the guard of the specification
+     */
+    public SpecConditions(DocumentedExecutable method, Guard guard) {
+      this(method, guard, null);
+    }
+
+    /**
+     * Creates the conditions of a post-specification.
+     *
+     * @param method documented executable the specification belongs to
+     * @param guard the guard of the specification
+     * @param property the property of the specification
+     */
+    public SpecConditions(DocumentedExecutable method, Guard guard, Property property) {
+      this.method = method;
+      this.guard = guard;
+      this.property = property;
+    }
+  }
+
+  /** In-memory source file of a generated class. */
+  private static final class SourceFile extends SimpleJavaFileObject {
+    /** The source code. */
+    private final String sourceCode;
+
+    SourceFile(String className, String sourceCode) {
+      super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+      this.sourceCode = sourceCode;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return sourceCode;
+    }
+  }
 }
@@ -27,6 +27,25 @@ public class Distance {
     return editDistance(s0, s1, Configuration.INSTANCE.getWordRemovalCost());
   }
 
+  /**
+   * Returns the edit distance between the given strings if it is at most {@code maxDistance},
+   * {@code Integer.MAX_VALUE} otherwise. The computation stops as soon as the distance is known to
+   * exceed {@code maxDistance}, so this method is much faster than {@link #editDistance(String,
+   * String)} when most strings are far apart. The cost of a word deletion is specified by the field
+   * {@code org.toradocu.conf.Configuration.wordRemovalCost}.
+   *
+   * @param s0 the first string to use in calculating distance. Word deletions are not considered
+   *     for this string.
+   * @param s1 the second string to use in calculating distance. Word deletions are considered for
+   *     this string only.
+   * @param maxDistance the maximum distance of interest
+   * @return the edit distance between the two strings, taking into account character edits and word
+   *     deletions, or {@code Integer.MAX_VALUE} if the distance is greater than {@code maxDistance}
+   */
+  public static int editDistanceAtMost(String s0, String s1, int maxDistance) {
+    return editDistance(s0, s1, Configuration.INSTANCE.getWordRemovalCost(), maxDistance);
+  }
+
   /**
    * Returns the edit distance between the given strings, using the specified cost for word
    * deletions. {@code s1} is the only string in which word deletions are considered when
@@ -41,6 +60,136 @@ public class Distance {
    *     deletions
    */
   static int editDistance(String s0, String s1, int wordDeletionCost) {
+    return editDistance(s0, s1, wordDeletionCost, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the edit distance between the given strings, using the specified cost for word
+   * deletions, if the distance is at most {@code maxDistance}. Returns {@code Integer.MAX_VALUE}
+   * otherwise.
+   *
+   * @param s0 the first string to use in calculating distance. Word deletions are not considered
+   *     for this string.
+   * @param s1 the second string to use in calculating distance. Word deletions are considered for
+   *     this string only.
+   * @param wordDeletionCost the cost of a single word deletion
+   * @param maxDistance the maximum distance of interest
+   * @return the edit distance between the two strings, taking into account character edits and word
+   *     deletions, or {@code Integer.MAX_VALUE} if the distance is greater than {@code maxDistance}
+   */
+  static int editDistance(String s0, String s1, int wordDeletionCost, int maxDistance) {
+    // The result is the minimum, over all the non-empty subsequences of the words in s1, of the
+    // Levenshtein distance between s0 and the words in the subsequence (joined by spaces) plus the
+    // cost of the deleted words. Rather than enumerating the subsequences, the Levenshtein DP
+    // columns of all the subsequences are merged word by word, taking the element-wise minimum:
+    // this is exact because a DP column update only uses min and sum operations.
+    // Costs never decrease along the DP, so the computation stops as soon as every entry of the
+    // current columns exceeds maxDistance.
+    final String left = s0.toLowerCase();
+    final String[] words = s1.toLowerCase().split(" ");
+    if (words.length == 0) { // s1 contains only spaces.
+      return left.length() <= maxDistance ? left.length() : Integer.MAX_VALUE;
+    }
+
+    // DP column of the empty subsequence, i.e., when all words processed so far are deleted.
+    int[] noWords = new int[left.length() + 1];
+    for (int i = 0; i < noWords.length; i++) {
+      noWords[i] = i;
+    }
+    // Minimum DP column of non-empty subsequences of the words processed so far.
+    int[] someWords = null;
+    for (String word : words) {
+      final int[] firstWord = levenshteinColumn(left, noWords, word, maxDistance);
+      int minCost;
+      if (someWords == null) {
+        someWords = firstWord;
+        minCost = min(someWords);
+      } else {
+        final int[] nextWord = levenshteinColumn(left, someWords, " " + word, maxDistance);
+        minCost = Integer.MAX_VALUE;
+        for (int i = 0; i < someWords.length; i++) {
+          someWords[i] =
+              Math.min(someWords[i] + wordDeletionCost, Math.min(firstWord[i], nextWord[i]));
+          minCost = Math.min(minCost, someWords[i]);
+        }
+      }
+      for (int i = 0; i < noWords.length; i++) {
+        noWords[i] += wordDeletionCost;
+      }
+      // noWords[0] is the minimum of noWords.
+      if (minCost > maxDistance && noWords[0] > maxDistance) {
+        return Integer.MAX_VALUE;
+      }
+    }
+    final int distance = someWords[left.length()];
+    return distance <= maxDistance ? distance : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Extends a column of the Levenshtein DP matrix of {@code left} with the characters of {@code
+   * text}. Element {@code i} of {@code column} is the cost of transforming the first {@code i}
+   * characters of {@code left} into the text processed so far. The given column is not modified.
+   * When all the costs exceed {@code maxDistance} (which must then be less than {@code
+   * Integer.MAX_VALUE}), the computation stops and a column whose costs are all {@code maxDistance
+   * + 1} is returned.
+   *
+   * @param left the string whose prefixes are compared with the text
+   * @param column the last DP column of the text processed so far
+   * @param text the characters to append to the text
+   * @param maxDistance the maximum cost of interest
+   * @return the DP column after appending {@code text}
+   */
+  private static int[] levenshteinColumn(String left, int[] column, String text, int maxDistance) {
+    int[] p = column.clone(); // 'previous' cost array
+    int[] d = new int[p.length]; // current cost array
+    for (int j = 0; j < text.length(); j++) {
+      final char textJ = text.charAt(j);
+      d[0] = p[0] + 1;
+      int minCost = d[0];
+      for (int i = 1; i < p.length; i++) {
+        final int cost = left.charAt(i - 1) == textJ ? 0 : 1;
+        d[i] = Math.min(Math.min(d[i - 1] + 1, p[i] + 1), p[i - 1] + cost);
+        minCost = Math.min(minCost, d[i]);
+      }
+      final int[] tmp = p;
+      p = d;
+      d = tmp;
+      if (minCost > maxDistance) {
+        Arrays.fill(p, maxDistance + 1);
+        return p;
+      }
+    }
+    return p;
+  }
+
+  /**
+   * Returns the minimum element of the given non-empty array.
+   *
+   * @param values a non-empty array
+   * @return the minimum element of {@code values}
+   */
+  private static int min(int[] values) {
+    int min = values[0];
+    for (int value : values) {
+      min = Math.min(min, value);
+    }
+    return min;
+  }
+
+  /**
+   * Returns the same edit distance as {@link #editDistance(String, String, int)}, computed by
+   * trying every sequence of word deletions. The cost of this method grows factorially with the
+   * number of words in {@code s1}: it is the reference implementation used in tests only.
+   *
+   * @param s0 the first string to use in calculating distance. Word deletions are not considered
+   *     for this string.
+   * @param s1 the second string to use in calculating distance. Word deletions are considered for
+   *     this string only.
+   * @param wordDeletionCost the cost of a single word deletion
+   * @return the edit distance between the two strings, taking into account character edits and word
+   *     deletions
+   */
+  static int editDistanceExhaustive(String s0, String s1, int wordDeletionCost) {
     String[] words = s1.split(" ");
     return editDistanceRecursive(wordDeletionCost, s0, new LinkedList<>(Arrays.asList(words)));
   }
@@ -79,7 +228,7 @@ public class Distance {
    * @param caseSensitive true to consider case in calculating distance
    * @return the Levenshtein distance between the two strings
    */
-  private static int levenshteinDistance(String s0, String s1, boolean caseSensitive) {
+  static int levenshteinDistance(String s0, String s1, boolean caseSensitive) {
     if (!caseSensitive) {
       s0 = s0.toLowerCase();
       s1 = s1.toLowerCase();
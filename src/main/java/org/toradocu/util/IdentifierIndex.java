@@ -0,0 +1,250 @@
+package org.toradocu.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.toradocu.conf.Configuration;
+
+/**
+ * Index of string identifiers that returns the values whose identifiers are within a given {@link
+ * Distance#editDistance(String, String) edit distance} of a string, together with their distance.
+ *
+ * <p>Identifiers are stored in a BK-tree built on the Levenshtein distance of the lowercased
+ * identifiers. The edit distance used by Toradocu also considers word deletions in the searched
+ * string and is not a metric, so it cannot drive the BK-tree directly. Instead, a search looks up
+ * in the tree every subsequence of the words of the searched string whose deletion cost is within
+ * the maximum distance, with the remaining distance as radius. The identifiers found this way are a
+ * superset of the result, and their exact distance is then computed with {@code
+ * Distance.editDistance}.
+ *
+ * <p>An index must not be modified while it is searched. Searches can run concurrently.
+ *
+ * @param <T> the type of the values associated with identifiers
+ */
+public final class IdentifierIndex<T> {
+
+  /**
+   * Maximum number of word subsequences looked up by a single search. When a string has more
+   * subsequences than this (e.g., with a word deletion cost of 0), the search checks every
+   * identifier in the index.
+   */
+  private static final int MAX_LOOKUPS = 256;
+
+  /** Node of the BK-tree. */
+  private static final class Node<T> {
+    /** Lowercased identifier. */
+    private final String key;
+    /** Values having {@code key} as identifier (ignoring case). */
+    private final List<T> values = new ArrayList<>(1);
+    /** Children of this node, by Levenshtein distance from {@code key}. */
+    private final Map<Integer, Node<T>> children = new HashMap<>();
+
+    private Node(String key) {
+      this.key = key;
+    }
+  }
+
+  /** Root of the BK-tree, null if the index is empty. */
+  private Node<T> root;
+  /** All nodes of the BK-tree. */
+  private final List<Node<T>> nodes = new ArrayList<>();
+
+  /**
+   * Adds an identifier of the given value to this index.
+   *
+   * @param identifier the identifier to add
+   * @param value the value identified by {@code identifier}
+   */
+  public void add(String identifier, T value) {
+    final String key = identifier.toLowerCase();
+    Node<T> node = root;
+    if (node == null) {
+      root = node = newNode(key);
+    }
+    while (!node.key.equals(key)) {
+      final int distance = Distance.levenshteinDistance(key, node.key, true);
+      Node<T> child = node.children.get(distance);
+      if (child == null) {
+        child = newNode(key);
+        node.children.put(distance, child);
+      }
+      node = child;
+    }
+    node.values.add(value);
+  }
+
+  private Node<T> newNode(String key) {
+    final Node<T> node = new Node<>(key);
+    nodes.add(node);
+    return node;
+  }
+
+  /**
+   * Returns the values having at least one identifier within edit distance {@code maxDistance} of
+   * {@code s}, each mapped to the minimum edit distance between its identifiers and {@code s}. The
+   * cost of a word deletion is specified by the field {@code
+   * org.toradocu.conf.Configuration.wordRemovalCost}.
+   *
+   * @param s the string to search. Word deletions are considered for this string only, as in {@code
+   *     Distance.editDistance(identifier, s)}
+   * @param maxDistance the maximum edit distance of interest
+   * @return the values within distance {@code maxDistance} of {@code s} (compared by identity)
+   *     mapped to their distance from {@code s}
+   */
+  public Map<T, Integer> search(String s, int maxDistance) {
+    return search(s, maxDistance, Configuration.INSTANCE.getWordRemovalCost());
+  }
+
+  /**
+   * Returns the values having at least one identifier within edit distance {@code maxDistance} of
+   * {@code s}, using the specified cost for word deletions. This method is mainly provided for
+   * testing purposes.
+   *
+   * @param s the string to search
+   * @param maxDistance the maximum edit distance of interest
+   * @param wordDeletionCost the cost of a single word deletion
+   * @return the values within distance {@code maxDistance} of {@code s} (compared by identity)
+   *     mapped to their distance from {@code s}
+   */
+  Map<T, Integer> search(String s, int maxDistance, int wordDeletionCost) {
+    final Map<T, Integer> distances = new IdentityHashMap<>();
+    if (root == null || maxDistance < 0) {
+      return distances;
+    }
+    for (Node<T> node : candidates(s.toLowerCase(), maxDistance, wordDeletionCost)) {
+      final int distance = Distance.editDistance(node.key, s, wordDeletionCost, maxDistance);
+      if (distance <= maxDistance) {
+        for (T value : node.values) {
+          distances.merge(value, distance, Math::min);
+        }
+      }
+    }
+    return distances;
+  }
+
+  /**
+   * Returns the nodes that may be within edit distance {@code maxDistance} of {@code s}.
+   *
+   * @param s the lowercased string to search
+   * @param maxDistance the maximum edit distance of interest
+   * @param wordDeletionCost the cost of a single word deletion
+   * @return a superset of the nodes within edit distance {@code maxDistance} of {@code s}
+   */
+  private Collection<Node<T>> candidates(String s, int maxDistance, int wordDeletionCost) {
+    final String[] words = s.split(" ");
+    final Set<Node<T>> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+    if (words.length == 0) { // s contains only spaces.
+      lookUp("", maxDistance, candidates);
+      return candidates;
+    }
+
+    // At least one word must be kept.
+    int maxDeletions = words.length - 1;
+    if (wordDeletionCost > 0) {
+      maxDeletions = Math.min(maxDeletions, maxDistance / wordDeletionCost);
+    }
+    if (countSubsequences(words.length, maxDeletions) > MAX_LOOKUPS) {
+      return nodes;
+    }
+    lookUpSubsequences(
+        words, 0, new ArrayDeque<>(), 0, maxDeletions, maxDistance, wordDeletionCost, candidates);
+    return candidates;
+  }
+
+  /**
+   * Looks up the subsequences of {@code words} that start with {@code kept} and continue with a
+   * subsequence of the words from position {@code index} on.
+   *
+   * @param words the words of the searched string
+   * @param index the position of the next word to keep or delete
+   * @param kept the words kept so far
+   * @param deletions the number of words deleted so far
+   * @param maxDeletions the maximum number of words that can be deleted
+   * @param maxDistance the maximum edit distance of interest
+   * @param wordDeletionCost the cost of a single word deletion
+   * @param candidates the set to which found nodes are added
+   */
+  private void lookUpSubsequences(
+      String[] words,
+      int index,
+      Deque<String> kept,
+      int deletions,
+      int maxDeletions,
+      int maxDistance,
+      int wordDeletionCost,
+      Set<Node<T>> candidates) {
+    if (index == words.length) {
+      if (!kept.isEmpty()) {
+        final int radius = maxDistance - deletions * wordDeletionCost;
+        lookUp(String.join(" ", kept), radius, candidates);
+      }
+      return;
+    }
+    kept.addLast(words[index]);
+    lookUpSubsequences(
+        words, index + 1, kept, deletions, maxDeletions, maxDistance, wordDeletionCost, candidates);
+    kept.removeLast();
+    if (deletions < maxDeletions) {
+      lookUpSubsequences(
+          words,
+          index + 1,
+          kept,
+          deletions + 1,
+          maxDeletions,
+          maxDistance,
+          wordDeletionCost,
+          candidates);
+    }
+  }
+
+  /**
+   * Adds to {@code candidates} the nodes whose key is within Levenshtein distance {@code radius} of
+   * {@code s}.
+   *
+   * @param s the lowercased string to look up
+   * @param radius the maximum Levenshtein distance
+   * @param candidates the set to which found nodes are added
+   */
+  private void lookUp(String s, int radius, Set<Node<T>> candidates) {
+    final Deque<Node<T>> toVisit = new ArrayDeque<>();
+    toVisit.push(root);
+    while (!toVisit.isEmpty()) {
+      final Node<T> node = toVisit.pop();
+      final int distance = Distance.levenshteinDistance(node.key, s, true);
+      if (distance <= radius) {
+        candidates.add(node);
+      }
+      // By the triangle inequality, only children at distance in [distance - radius, distance +
+      // radius] from node can be within radius of s.
+      for (Map.Entry<Integer, Node<T>> child : node.children.entrySet()) {
+        if (Math.abs(child.getKey() - distance) <= radius) {
+          toVisit.push(child.getValue());
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of subsequences of a sequence of {@code n} words that delete at most {@code
+   * maxDeletions} words, or {@code Integer.MAX_VALUE} if the number exceeds {@code MAX_LOOKUPS}.
+   */
+  private static int countSubsequences(int n, int maxDeletions) {
+    long count = 0;
+    long binomial = 1; // n choose k
+    for (int k = 0; k <= maxDeletions; k++) {
+      count += binomial;
+      if (count > MAX_LOOKUPS) {
+        return Integer.MAX_VALUE;
+      }
+      binomial = binomial * (n - k) / (k + 1);
+    }
+    return (int) count;
+  }
+}
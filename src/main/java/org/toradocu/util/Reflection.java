@@ -3,9 +3,12 @@ package org.toradocu.util;
 import java.lang.reflect.Type;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
@@ -17,6 +20,12 @@ public class Reflection {
 
   private static final Map<String, Class> primitiveClasses = initializePrimitivesMap();
 
+  /**
+   * Class loader and loaded classes of each class path. Classes are loaded with the same class
+   * loader for the whole run, so that class path jars are opened and classes are defined only once.
+   */
+  private static final Map<List<URL>, ClassCache> classCaches = new ConcurrentHashMap<>();
+
   private static Map<String, Class> initializePrimitivesMap() {
     Map<String, Class> map = new HashMap<>(9);
     map.put("int", Integer.TYPE);
@@ -47,16 +56,8 @@ public class Reflection {
       return primitiveClasses.get(className);
     }
 
-    // The order here is important. We have to first look in the paths specified by the user and
-    // then in the default class path. The default classpath contains the dependencies of Toradocu
-    // that could clash with the system under analysis.
-    final List<URL> urls = Configuration.INSTANCE.classDirs;
-    final URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
-    try {
-      return loader.loadClass(className);
-    } catch (ClassNotFoundException e) {
-      return Class.forName(className);
-    }
+    final List<URL> urls = new ArrayList<>(Configuration.INSTANCE.classDirs);
+    return classCaches.computeIfAbsent(urls, ClassCache::new).getClass(className);
   }
 
   /**
@@ -69,4 +70,38 @@ public class Reflection {
     String typeName = type.getTypeName();
     return primitiveClasses.containsKey(typeName);
   }
+
+  /** Class loader of a class path, together with the result of the class lookups made so far. */
+  private static final class ClassCache {
+    private final URLClassLoader loader;
+    /** Classes by name. Names of classes that cannot be loaded are mapped to an empty optional. */
+    private final Map<String, Optional<Class<?>>> classes = new ConcurrentHashMap<>();
+
+    private ClassCache(List<URL> urls) {
+      loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
+    }
+
+    private Class<?> getClass(String className) throws ClassNotFoundException {
+      final Optional<Class<?>> clazz = classes.computeIfAbsent(className, this::loadClass);
+      if (!clazz.isPresent()) {
+        throw new ClassNotFoundException(className);
+      }
+      return clazz.get();
+    }
+
+    private Optional<Class<?>> loadClass(String className) {
+      // The order here is important. We have to first look in the paths specified by the user and
+      // then in the default class path. The default classpath contains the dependencies of
+      // Toradocu that could clash with the system under analysis.
+      try {
+        return Optional.of(loader.loadClass(className));
+      } catch (ClassNotFoundException e) {
+        try {
+          return Optional.of(Class.forName(className));
+        } catch (ClassNotFoundException e1) {
+          return Optional.empty();
+        }
+      }
+    }
+  }
 }
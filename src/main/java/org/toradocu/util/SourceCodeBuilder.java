@@ -3,6 +3,8 @@ package org.toradocu.util;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -42,6 +44,19 @@ public class SourceCodeBuilder {
    * @return the source code to be compiled
    */
   public String buildSource() {
+    return buildClassDeclaration("GeneratedSpecs", imports) + buildMethod("foo") + " }";
+  }
+
+  /**
+   * Composes the beginning of the source code of a class, up to the opening brace of the class
+   * body: the package declaration, the given imports, and the class declaration with the stored
+   * class type parameters.
+   *
+   * @param className the name of the class
+   * @param imports the names to be imported
+   * @return the beginning of the source code of the class
+   */
+  public String buildClassDeclaration(String className, Collection<String> imports) {
     StringBuilder fakeSource = new StringBuilder();
 
     if (!packageDeclaration.isEmpty()) {
@@ -55,7 +70,9 @@ public class SourceCodeBuilder {
       fakeSource.append(";");
       fakeSource.append("\n");
     }
-    fakeSource.append("public class GeneratedSpecs ");
+    fakeSource.append("public class ");
+    fakeSource.append(className);
+    fakeSource.append(" ");
     if (!classTypeParameters.isEmpty()) {
       fakeSource.append("<");
       fakeSource.append(String.join(",", classTypeParameters));
@@ -63,6 +80,18 @@ public class SourceCodeBuilder {
     }
     fakeSource.append("{");
     fakeSource.append("\n");
+    return fakeSource.toString();
+  }
+
+  /**
+   * Composes the declaration of a method, with the stored type parameters and arguments, whose body
+   * exercises the stored boolean conditions.
+   *
+   * @param methodName the name of the method
+   * @return the source code of the method
+   */
+  public String buildMethod(String methodName) {
+    StringBuilder fakeSource = new StringBuilder();
     fakeSource.append("public ");
     if (!methodTypeParameters.isEmpty()) {
       fakeSource.append("<");
@@ -70,8 +99,9 @@ public class SourceCodeBuilder {
       fakeSource.append("> ");
     }
 
-    fakeSource.append("void");
-    fakeSource.append(" foo (");
+    fakeSource.append("void ");
+    fakeSource.append(methodName);
+    fakeSource.append(" (");
     fakeSource.append(String.join(",", arguments));
     if (!arguments.isEmpty() && !varArgArguments.isEmpty()) {
       fakeSource.append(",");
@@ -85,10 +115,19 @@ public class SourceCodeBuilder {
       fakeSource.append(")");
       fakeSource.append("\n");
     }
-    fakeSource.append("return;} }");
+    fakeSource.append("return;}");
     return fakeSource.toString();
   }
 
+  /**
+   * Returns the names to be imported in the source code.
+   *
+   * @return the names to be imported in the source code
+   */
+  public Set<String> getImports() {
+    return Collections.unmodifiableSet(imports);
+  }
+
   /**
    * Stores a new argument of the {@code foo} method. Such method will exercise all the boolean
    * condition that you wish to compile, so be sure to include every code element is needed.
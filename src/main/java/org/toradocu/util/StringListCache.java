@@ -0,0 +1,115 @@
+package org.toradocu.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent cache of lists of strings by key, used to reuse results across Toradocu runs (e.g.,
+ * the lemmatized words of code element names, by name, or the verdicts of compliance checks).
+ * Entries are stored in a text file, one key per line followed by its strings, separated by tabs.
+ * The first line of the file is the version of the code that produced the entries: when it differs
+ * from the current version, the file is replaced by an empty one. The file can be shared among
+ * concurrent runs, and is accessed through a {@code CacheFile}.
+ */
+public final class StringListCache {
+
+  /** The cache file. */
+  private CacheFile file;
+
+  /** The cached entries: lists of strings, by key. */
+  private final Map<String, List<String>> entries = new ConcurrentHashMap<>();
+
+  private StringListCache() {}
+
+  /**
+   * Opens the cache stored in the given file, loading the entries created with the given version.
+   *
+   * @param directory the directory of the cache file, created if it does not exist
+   * @param fileName the name of the cache file
+   * @param version the version of the code that computes the cached entries
+   * @return the cache
+   * @throws IOException if the cache file cannot be read or created
+   */
+  public static StringListCache open(File directory, String fileName, String version)
+      throws IOException {
+    final StringListCache cache = new StringListCache();
+    cache.file =
+        CacheFile.open(
+            new File(directory, fileName).toPath(),
+            (version + "\n").getBytes(StandardCharsets.UTF_8),
+            cache::readEntries);
+    return cache;
+  }
+
+  /**
+   * Adds to {@code entries} the entries in the given buffer.
+   *
+   * @param buffer the lines of the cache file that follow the version
+   * @return the position following the last complete line in {@code buffer}
+   */
+  private int readEntries(ByteBuffer buffer) {
+    // The last line is incomplete if a run was interrupted while writing it.
+    int end = buffer.limit();
+    while (end > 0 && buffer.get(end - 1) != '\n') {
+      end--;
+    }
+    final byte[] bytes = new byte[end];
+    buffer.get(bytes);
+    final String content = new String(bytes, StandardCharsets.UTF_8);
+    for (String line : content.split("\n")) {
+      if (line.isEmpty()) {
+        continue;
+      }
+      final String[] fields = line.split("\t", -1);
+      entries.put(
+          fields[0], Collections.unmodifiableList(Arrays.asList(fields).subList(1, fields.length)));
+    }
+    return end;
+  }
+
+  /**
+   * Returns the cached strings of the given key.
+   *
+   * @param key a key
+   * @return the strings of {@code key}, or null if they are not in the cache
+   */
+  public List<String> get(String key) {
+    return entries.get(key);
+  }
+
+  /**
+   * Stores the strings of the given key in the cache. Keys and strings containing tabs or line
+   * separators are not stored.
+   *
+   * @param key a key
+   * @param strings the strings of {@code key}
+   */
+  public void put(String key, List<String> strings) {
+    final List<String> fields = new ArrayList<>();
+    fields.add(key);
+    fields.addAll(strings);
+    for (String field : fields) {
+      if (field.contains("\t") || field.contains("\n") || field.contains("\r")) {
+        return;
+      }
+    }
+    if (entries.putIfAbsent(key, Collections.unmodifiableList(new ArrayList<>(strings))) != null) {
+      return;
+    }
+    final ByteBuffer line =
+        ByteBuffer.wrap((String.join("\t", fields) + "\n").getBytes(StandardCharsets.UTF_8));
+    try {
+      file.append(line);
+    } catch (IOException e) {
+      // The entry is still cached for this run.
+    }
+  }
+}
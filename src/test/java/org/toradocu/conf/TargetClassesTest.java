@@ -0,0 +1,49 @@
+package org.toradocu.conf;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class TargetClassesTest {
+
+  private static final Path SOURCE_DIR = Paths.get("src/test/resources");
+
+  @Test
+  public void classesInPackage() {
+    List<String> classes = TargetClasses.matching(SOURCE_DIR, "example.*");
+    assertThat(classes, is(Arrays.asList("example.AClass", "example.AnEnum")));
+  }
+
+  @Test
+  public void classesInPackageAndSubpackages() {
+    List<String> classes = TargetClasses.matching(SOURCE_DIR, "example.**");
+    assertThat(
+        classes,
+        is(
+            Arrays.asList(
+                "example.AClass",
+                "example.AnEnum",
+                "example.annotation.NonNull",
+                "example.annotation.NotNull",
+                "example.annotation.Nullable",
+                "example.exception.AnException",
+                "example.nulldereference.Resource",
+                "example.nulldereference.ResourceManager")));
+  }
+
+  @Test
+  public void classNamePattern() {
+    List<String> classes = TargetClasses.matching(SOURCE_DIR, "example.**.*Null");
+    assertThat(
+        classes, is(Arrays.asList("example.annotation.NonNull", "example.annotation.NotNull")));
+
+    classes = TargetClasses.matching(SOURCE_DIR, "example.AClass");
+    assertThat(classes, is(Collections.singletonList("example.AClass")));
+  }
+}
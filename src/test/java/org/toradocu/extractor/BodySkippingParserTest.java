@@ -0,0 +1,70 @@
+package org.toradocu.extractor;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class BodySkippingParserTest {
+
+  @Test
+  public void methodAndConstructorBodiesAreSkipped() {
+    assertThat(
+        BodySkippingParser.skipBodies(
+            "/** A class. */\n"
+                + "@SuppressWarnings({\"unchecked\"}) public class A<T> {\n"
+                + "  /** Creates an A. */\n"
+                + "  public A() { this(\"}\"); }\n"
+                + "  A(String s) throws Exception, Error {\n"
+                + "    if (s == null) { throw new Error(); }\n"
+                + "  }\n"
+                + "  /** Returns '{'. */\n"
+                + "  @Deprecated(since = \"1\") char brace(int... x)[] { return new char[] {'{'}; }\n"
+                + "  // }\n"
+                + "  abstract <E extends T> void m(java.util.List<E> l);\n"
+                + "}\n"),
+        is(
+            "/** A class. */\n"
+                + "@SuppressWarnings({\"unchecked\"}) public class A<T> {\n"
+                + "  /** Creates an A. */\n"
+                + "  public A() {}\n"
+                + "  A(String s) throws Exception, Error {\n"
+                + "\n"
+                + "}\n"
+                + "  /** Returns '{'. */\n"
+                + "  @Deprecated(since = \"1\") char brace(int... x)[] {}\n"
+                + "  // }\n"
+                + "  abstract <E extends T> void m(java.util.List<E> l);\n"
+                + "}\n"));
+  }
+
+  @Test
+  public void initializersAreSkipped() {
+    assertThat(
+        BodySkippingParser.skipBodies("class A { static { init(); } { init(); } }"),
+        is("class A { static {} {} }"));
+  }
+
+  @Test
+  public void fieldInitializersAreKept() {
+    final String source =
+        "class A {\n"
+            + "  int[] a = {1, 2};\n"
+            + "  Runnable r = new Runnable() { public void run() { } };\n"
+            + "  Runnable l = () -> { };\n"
+            + "  @interface B { int[] value() default {1}; Class<?> c() default A.class; }\n"
+            + "}\n";
+    assertThat(BodySkippingParser.skipBodies(source), is(source));
+  }
+
+  @Test
+  public void enumConstantsAreKept() {
+    assertThat(
+        BodySkippingParser.skipBodies(
+            "enum E { A(1) { int f() { return 1; } }, B(new int[] {2}) {}; "
+                + "E(int x) { } E(int[] x) { } interface I { default void g() { } } }"),
+        is(
+            "enum E { A(1) { int f() {} }, B(new int[] {2}) {}; "
+                + "E(int x) {} E(int[] x) {} interface I { default void g() {} } }"));
+  }
+}
@@ -0,0 +1,39 @@
+package org.toradocu.extractor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import java.io.FileNotFoundException;
+import java.util.List;
+
+/** Assertions shared by the tests of the fast extraction mode of {@code JavadocExtractor}. */
+final class FastExtractionAssertions {
+
+  private FastExtractionAssertions() {}
+
+  /**
+   * Checks that extracting the given class skipping method bodies yields the same documentation as
+   * the default extraction.
+   *
+   * @param className the qualified name of the extracted class
+   * @param sourcePath the source folder of the extracted class
+   * @param members the documented executables extracted from {@code className} by default
+   */
+  static void assertSameAsDefaultExtraction(
+      String className, String sourcePath, List<DocumentedExecutable> members)
+      throws ClassNotFoundException, FileNotFoundException {
+    final List<DocumentedExecutable> fastMembers =
+        new JavadocExtractor(true).extract(className, sourcePath).getDocumentedExecutables();
+    assertThat(fastMembers.size(), is(members.size()));
+    for (int i = 0; i < members.size(); i++) {
+      final DocumentedExecutable member = members.get(i);
+      final DocumentedExecutable fastMember = fastMembers.get(i);
+      assertThat(fastMember.getExecutable(), is(equalTo(member.getExecutable())));
+      assertThat(fastMember.getParameters(), is(equalTo(member.getParameters())));
+      assertThat(fastMember.paramTags(), is(equalTo(member.paramTags())));
+      assertThat(fastMember.returnTag(), is(equalTo(member.returnTag())));
+      assertThat(fastMember.throwsTags(), is(equalTo(member.throwsTags())));
+    }
+  }
+}
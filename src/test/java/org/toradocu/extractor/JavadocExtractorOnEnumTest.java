@@ -83,6 +83,12 @@ public class JavadocExtractorOnEnumTest {
     assertThat(member.getDeclaringClass().getName(), is("example.AnEnum"));
   }
 
+  @Test
+  public void fastExtraction() throws ClassNotFoundException, FileNotFoundException {
+    // Skipping method bodies does not change the extracted documentation.
+    FastExtractionAssertions.assertSameAsDefaultExtraction(TARGET_CLASS, EXAMPLE_SRC, members);
+  }
+
   private static DocumentedType runJavadocExtractor()
       throws ClassNotFoundException, FileNotFoundException, MalformedURLException {
     final URL url = Paths.get(EXAMPLE_SRC).toUri().toURL();
@@ -206,6 +206,12 @@ public class JavadocExtractorTest {
     assertThat(member.getReturnType().getType().getTypeName(), is("void"));
   }
 
+  @Test
+  public void fastExtraction() throws ClassNotFoundException, FileNotFoundException {
+    // Skipping method bodies does not change the extracted documentation.
+    FastExtractionAssertions.assertSameAsDefaultExtraction(TARGET_CLASS, EXAMPLE_SRC, members);
+  }
+
   private static DocumentedType runJavadocExtractor()
       throws ClassNotFoundException, FileNotFoundException, MalformedURLException {
     final URL url = Paths.get(EXAMPLE_SRC).toUri().toURL();
@@ -0,0 +1,80 @@
+package org.toradocu.extractor;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.github.javaparser.ast.CompilationUnit;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SourceIndexTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void packagesListTheirTypes() throws IOException {
+    final Path root = folder.getRoot().toPath();
+    write(root, "example/Foo.java", "package example; public class Foo {}");
+    write(root, "example/FooException.java", "package example; class FooException {}");
+    write(root, "example/package-info.java", "package example;");
+    write(root, "example/nested/Bar.java", "package example.nested; class Bar {}");
+    write(root, "Baz.java", "class Baz {}");
+
+    final SourceIndex index = SourceIndex.of(root);
+    assertThat(SourceIndex.of(root.resolve("example").resolve("..")), is(sameInstance(index)));
+    assertThat(
+        index.getTypesInPackage("example"),
+        containsInAnyOrder("example.Foo", "example.FooException"));
+    assertThat(index.getTypesInPackage("example.nested"), containsInAnyOrder("example.nested.Bar"));
+    assertThat(index.getTypesInPackage(""), containsInAnyOrder("Baz"));
+    assertThat(index.getTypesInPackage("example.missing"), is(empty()));
+    assertThat(
+        JavadocExtractor.getClassesInSamePackage("example.Foo$Inner", index),
+        containsInAnyOrder("example.Foo", "example.FooException"));
+    assertThat(
+        JavadocExtractor.getClassesInSamePackage("example.Foo", index),
+        containsInAnyOrder("example.FooException"));
+    assertThat(JavadocExtractor.getClassesInSamePackage("Baz", index), is(empty()));
+  }
+
+  @Test
+  public void compilationUnitsAreParsedOnce() throws IOException {
+    final Path root = folder.getRoot().toPath();
+    write(root, "example/Foo.java", "package example; public class Foo { class Inner {} }");
+
+    final SourceIndex index = SourceIndex.of(root);
+    final CompilationUnit cu = index.getCompilationUnit("example.Foo");
+    assertThat(cu.getClassByName("Foo").isPresent(), is(true));
+    assertThat(index.getCompilationUnit("example.Foo"), is(sameInstance(cu)));
+
+    // Compilation units are evicted when the cache is full.
+    for (int i = 0; i < SourceIndex.MAX_CACHED_UNITS; i++) {
+      write(root, "Type" + i + ".java", "class Type" + i + " {}");
+      index.getCompilationUnit("Type" + i);
+    }
+    assertThat(index.getCompilationUnit("example.Foo"), is(not(sameInstance(cu))));
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void missingSourceFile() throws FileNotFoundException {
+    SourceIndex.of(folder.getRoot().toPath()).getCompilationUnit("example.Missing");
+  }
+
+  private static void write(Path root, String fileName, String content) throws IOException {
+    final Path file = root.resolve(fileName.replace('/', File.separatorChar));
+    Files.createDirectories(file.getParent());
+    Files.write(file, Collections.singletonList(content), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,145 @@
+package org.toradocu.translator;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.ling.IndexedWord;
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import edu.stanford.nlp.trees.UniversalEnglishGrammaticalRelations;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ParseCacheTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final List<TaggedWord> SENTENCE =
+      Arrays.asList(
+          new TaggedWord("array", "NN"), new TaggedWord("is", "VBZ"), new TaggedWord("null", "JJ"));
+
+  private static final List<TaggedWord> OTHER_SENTENCE =
+      Arrays.asList(new TaggedWord("array", "NN"), new TaggedWord("is", "VBZ"));
+
+  /** Graph of "array is null or empty", with a specific relation and an extra edge. */
+  private static final SemanticGraph GRAPH = new SemanticGraph();
+
+  static {
+    final List<IndexedWord> words = new ArrayList<>();
+    final String[][] taggedWords = {
+      {"array", "NN"}, {"is", "VBZ"}, {"null", "JJ"}, {"empty", "JJ"}
+    };
+    for (int i = 0; i < taggedWords.length; i++) {
+      final CoreLabel label = new CoreLabel();
+      label.setWord(taggedWords[i][0]);
+      label.setValue(taggedWords[i][0]);
+      label.setTag(taggedWords[i][1]);
+      label.setIndex(i + 1);
+      final IndexedWord word = new IndexedWord(label);
+      GRAPH.addVertex(word);
+      words.add(word);
+    }
+    GRAPH.addEdge(
+        words.get(2), words.get(0), UniversalEnglishGrammaticalRelations.NOMINAL_SUBJECT, 0, false);
+    GRAPH.addEdge(
+        words.get(2), words.get(1), UniversalEnglishGrammaticalRelations.COPULA, 0, false);
+    GRAPH.addEdge(
+        words.get(2), words.get(3), UniversalEnglishGrammaticalRelations.getConj("or"), 0, false);
+    GRAPH.addEdge(
+        words.get(3), words.get(0), UniversalEnglishGrammaticalRelations.NOMINAL_SUBJECT, 0, true);
+    GRAPH.setRoot(words.get(2));
+  }
+
+  @Test
+  public void graphsAreReusedAcrossRuns() throws IOException {
+    final File directory = folder.getRoot();
+    ParseCache cache = ParseCache.open(directory, "1.0");
+    assertThat(cache.get(SENTENCE), is(nullValue()));
+    cache.put(SENTENCE, GRAPH);
+    assertThat(
+        cache.get(SENTENCE).toString(SemanticGraph.OutputFormat.LIST),
+        is(GRAPH.toString(SemanticGraph.OutputFormat.LIST)));
+
+    cache = ParseCache.open(directory, "1.0");
+    assertThat(
+        cache.get(SENTENCE).toString(SemanticGraph.OutputFormat.LIST),
+        is(GRAPH.toString(SemanticGraph.OutputFormat.LIST)));
+    assertThat(cache.get(OTHER_SENTENCE), is(nullValue()));
+  }
+
+  @Test
+  public void differentVersionInvalidatesCache() throws IOException {
+    final File directory = folder.getRoot();
+    ParseCache.open(directory, "1.0").put(SENTENCE, GRAPH);
+    assertThat(ParseCache.open(directory, "2.0").get(SENTENCE), is(nullValue()));
+    assertThat(ParseCache.open(directory, "1.0").get(SENTENCE), is(nullValue()));
+  }
+
+  @Test
+  public void cachesSharingAFileAppendTheirEntries() throws IOException {
+    final File directory = folder.getRoot();
+    final ParseCache cache1 = ParseCache.open(directory, "1.0");
+    final ParseCache cache2 = ParseCache.open(directory, "1.0");
+    cache1.put(SENTENCE, GRAPH);
+    cache2.put(OTHER_SENTENCE, GRAPH);
+
+    final ParseCache cache = ParseCache.open(directory, "1.0");
+    assertThat(
+        cache.get(SENTENCE).toString(SemanticGraph.OutputFormat.LIST),
+        is(GRAPH.toString(SemanticGraph.OutputFormat.LIST)));
+    assertThat(
+        cache.get(OTHER_SENTENCE).toString(SemanticGraph.OutputFormat.LIST),
+        is(GRAPH.toString(SemanticGraph.OutputFormat.LIST)));
+  }
+
+  @Test
+  public void differentVersionDoesNotAffectOpenCaches() throws IOException {
+    final File directory = folder.getRoot();
+    final ParseCache oldCache = ParseCache.open(directory, "1.0");
+    oldCache.put(SENTENCE, GRAPH);
+    final ParseCache reopenedOldCache = ParseCache.open(directory, "1.0");
+
+    ParseCache.open(directory, "2.0").put(OTHER_SENTENCE, GRAPH);
+    assertThat(
+        reopenedOldCache.get(SENTENCE).toString(SemanticGraph.OutputFormat.LIST),
+        is(GRAPH.toString(SemanticGraph.OutputFormat.LIST)));
+    assertThat(
+        ParseCache.open(directory, "2.0")
+            .get(OTHER_SENTENCE)
+            .toString(SemanticGraph.OutputFormat.LIST),
+        is(GRAPH.toString(SemanticGraph.OutputFormat.LIST)));
+  }
+
+  @Test
+  public void incompleteEntryIsDiscarded() throws IOException {
+    final File directory = folder.getRoot();
+    ParseCache cache = ParseCache.open(directory, "1.0");
+    cache.put(SENTENCE, GRAPH);
+    cache.put(OTHER_SENTENCE, GRAPH);
+    final File cacheFile = new File(directory, "stanford-parses.bin");
+    try (RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")) {
+      file.setLength(file.length() - 1);
+    }
+
+    cache = ParseCache.open(directory, "1.0");
+    assertThat(
+        cache.get(SENTENCE).toString(SemanticGraph.OutputFormat.LIST),
+        is(GRAPH.toString(SemanticGraph.OutputFormat.LIST)));
+    assertThat(cache.get(OTHER_SENTENCE), is(nullValue()));
+    cache.put(OTHER_SENTENCE, GRAPH);
+
+    cache = ParseCache.open(directory, "1.0");
+    assertThat(
+        cache.get(OTHER_SENTENCE).toString(SemanticGraph.OutputFormat.LIST),
+        is(GRAPH.toString(SemanticGraph.OutputFormat.LIST)));
+  }
+}
@@ -0,0 +1,81 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EmbeddingStoreTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final String MODEL =
+      "the 0.418 0.24968 -0.41242\n"
+          + "zebra -1.5 0.0001 65504\n"
+          + "apple 1 -2 3.14159\n"
+          + "café 0 0 -0.5\n"
+          + "the 9 9 9\n"
+          + "a 0.5 0.25 0.125\n";
+
+  private EmbeddingStore createStore(String model) throws IOException {
+    final Path file = folder.getRoot().toPath().resolve("model.emb");
+    EmbeddingStore.convert(new ByteArrayInputStream(model.getBytes(StandardCharsets.UTF_8)), file);
+    return EmbeddingStore.open(file);
+  }
+
+  @Test
+  public void vectorsAreReadBack() throws IOException {
+    final EmbeddingStore store = createStore(MODEL);
+    assertThat(store.dimension(), is(3));
+    assertThat(store.size(), is(5));
+    assertVector(store.getVector("the"), 0.418, 0.24968, -0.41242);
+    assertVector(store.getVector("zebra"), -1.5, 0.0001, 65504);
+    assertVector(store.getVector("apple"), 1, -2, 3.14159);
+    assertVector(store.getVector("café"), 0, 0, -0.5);
+    assertVector(store.getVector("a"), 0.5, 0.25, 0.125);
+  }
+
+  @Test
+  public void missingWordsHaveNoVector() throws IOException {
+    final EmbeddingStore store = createStore(MODEL);
+    for (String word : new String[] {"", "b", "th", "thee", "The", "cafe", "zzz"}) {
+      assertThat(word, store.hasWord(word), is(false));
+      assertThat(word, store.getVector(word), is(nullValue()));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void vectorsMustHaveTheSameDimension() throws IOException {
+    createStore("the 1 2 3\nof 1 2\n");
+  }
+
+  @Test
+  public void halfPrecisionConversionIsExact() {
+    for (int bits = 0; bits < 1 << 16; bits++) {
+      final short half = (short) bits;
+      final float value = EmbeddingStore.toFloat(half);
+      if (!Float.isNaN(value)) {
+        assertThat(Integer.toHexString(bits), EmbeddingStore.toHalf(value), is(half));
+      }
+    }
+    assertThat(EmbeddingStore.toFloat(EmbeddingStore.toHalf(1e-10f)), is(0f));
+    assertThat(EmbeddingStore.toFloat(EmbeddingStore.toHalf(1e10f)), is(Float.POSITIVE_INFINITY));
+    assertThat(EmbeddingStore.toFloat(EmbeddingStore.toHalf(1.00048828125f)), is(1f));
+    assertThat(EmbeddingStore.toFloat(EmbeddingStore.toHalf(1.00146484375f)), is(1.001953125f));
+  }
+
+  private static void assertVector(float[] vector, double... expected) {
+    assertThat(vector.length, is(expected.length));
+    for (int i = 0; i < expected.length; i++) {
+      assertThat((double) vector[i], closeTo(expected[i], Math.abs(expected[i]) / 1024));
+    }
+  }
+}
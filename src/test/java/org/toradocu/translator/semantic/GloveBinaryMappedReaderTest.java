@@ -0,0 +1,62 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GloveBinaryMappedReaderTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void vectorsAreReadFromTheMappedFile() throws IOException {
+    final Path dictionary = folder.newFile("dict.bin").toPath();
+    final Path vectors = folder.newFile("vectors.bin").toPath();
+    final String[] words = {"array", "empty", "null"};
+    try (DataOutputStream dictionaryOut = new DataOutputStream(Files.newOutputStream(dictionary));
+        DataOutputStream vectorsOut = new DataOutputStream(Files.newOutputStream(vectors))) {
+      for (int i = 0; i < words.length; i++) {
+        dictionaryOut.writeUTF(words[i]);
+        dictionaryOut.writeByte(8 * i); // Offsets up to 127 take one byte.
+        vectorsOut.writeFloat(i);
+        vectorsOut.writeFloat(-0.5f * i);
+      }
+    }
+
+    final GloveBinaryMappedReader reader = new GloveBinaryMappedReader(dictionary, vectors);
+    assertThat(reader.contains("empty"), is(true));
+    assertThat(reader.contains("size"), is(false));
+    assertThat(reader.get("size"), is(nullValue()));
+    assertThat(reader.get("null").getDimension(), is(2));
+    assertThat(reader.get("null").get(0), is(2.0));
+    assertThat(reader.get("null").get(1), is(-1.0));
+    assertThat(reader.get("empty").get(1), is(-0.5));
+  }
+
+  @Test
+  public void variableLengthLongs() throws IOException {
+    assertThat(readVLong(127), is(127L));
+    assertThat(readVLong(-112), is(-112L));
+    assertThat(readVLong(-113, 200), is(200L));
+    assertThat(readVLong(-115, 0x01, 0x11, 0x70), is(70000L));
+    assertThat(readVLong(-121, 199), is(-200L));
+  }
+
+  private static long readVLong(int... bytes) throws IOException {
+    final byte[] input = new byte[bytes.length];
+    for (int i = 0; i < bytes.length; i++) {
+      input[i] = (byte) bytes[i];
+    }
+    return GloveBinaryMappedReader.readVLong(new DataInputStream(new ByteArrayInputStream(input)));
+  }
+}
@@ -0,0 +1,36 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class LemmatizerTest {
+
+  @Test
+  public void nounsAndVerbsAreReduced() {
+    assertThat(
+        Lemmatizer.MORPHOLOGY.lemmatize("the children are returned"),
+        contains("the", "child", "be", "return"));
+    assertThat(Lemmatizer.MORPHOLOGY.lemmatize("has index"), contains("have", "index"));
+  }
+
+  @Test
+  public void closedClassWordsAreReducedAsTheParserDoes() {
+    assertThat(
+        Lemmatizer.MORPHOLOGY.lemmatize("an array with no elements via their keys"),
+        contains("a", "array", "with", "no", "element", "via", "they", "key"));
+  }
+
+  @Test
+  public void singleLettersAreNotReduced() {
+    assertThat(
+        Lemmatizer.MORPHOLOGY.lemmatize("m or v is null"), contains("m", "or", "v", "be", "null"));
+  }
+
+  @Test
+  public void wordsAreTokenizedAsByTheParser() {
+    assertThat(
+        Lemmatizer.MORPHOLOGY.lemmatize("cannot be null"), contains("can", "not", "be", "null"));
+  }
+}
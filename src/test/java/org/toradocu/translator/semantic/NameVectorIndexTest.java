@@ -0,0 +1,81 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class NameVectorIndexTest {
+
+  @Test
+  public void smallIndexReturnsExactNeighbours() {
+    final NameVectorIndex index =
+        new NameVectorIndex(
+            Arrays.asList(
+                new float[] {0, 0},
+                null,
+                new float[] {3, 4},
+                new float[] {1, 0},
+                new float[] {6, 8}));
+    assertThat(index.nearest(new float[] {0, 0}, 2), contains(0, 3));
+    assertThat(index.nearest(new float[] {6, 7}, 3), contains(4, 2, 3));
+    assertThat(index.nearest(new float[] {0, 0}, 10), contains(0, 3, 2, 4));
+  }
+
+  @Test
+  public void clusteredIndexFindsMostNeighbours() {
+    final Random random = new Random(0);
+    final int dimension = 20;
+    final List<float[]> centers = new ArrayList<>();
+    for (int c = 0; c < 30; c++) {
+      centers.add(randomVector(random, dimension, null, 1));
+    }
+    final List<float[]> vectors = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      vectors.add(
+          randomVector(random, dimension, centers.get(random.nextInt(centers.size())), 0.3));
+    }
+    final NameVectorIndex index = new NameVectorIndex(vectors);
+
+    final int k = 10;
+    int found = 0;
+    for (int q = 0; q < 100; q++) {
+      final float[] query =
+          randomVector(random, dimension, centers.get(random.nextInt(centers.size())), 0.3);
+      final List<Integer> expected =
+          IntStream.range(0, vectors.size())
+              .boxed()
+              .sorted(Comparator.comparingDouble(i -> distance(query, vectors.get(i))))
+              .limit(k)
+              .collect(Collectors.toList());
+      final List<Integer> actual = index.nearest(query, k);
+      found += actual.stream().filter(expected::contains).count();
+    }
+    // At least 90% recall.
+    assertThat(found, greaterThanOrEqualTo(900));
+  }
+
+  private static float[] randomVector(Random random, int dimension, float[] center, double scale) {
+    final float[] vector = new float[dimension];
+    for (int d = 0; d < dimension; d++) {
+      vector[d] = (float) (random.nextGaussian() * scale) + (center == null ? 0 : center[d]);
+    }
+    return vector;
+  }
+
+  private static double distance(float[] vector1, float[] vector2) {
+    double sum = 0;
+    for (int d = 0; d < vector1.length; d++) {
+      sum += (vector1[d] - vector2[d]) * (vector1[d] - vector2[d]);
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,58 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SemanticDiagnosticsTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void recordsAreWrittenWhenClosed() throws IOException {
+    final SemanticDiagnostics diagnostics = SemanticDiagnostics.open(folder.getRoot());
+    diagnostics.record(
+        "example.Foo",
+        "bar(int)",
+        "array be empty",
+        "target.isEmpty(): [isEmpty]",
+        "empty",
+        2,
+        0.5,
+        1.0);
+    diagnostics.record("example.Foo", "bar(int)", "array be empty", "a;b", "size", 2, 4.0, null);
+    diagnostics.close();
+
+    final List<String> lines = Files.readAllLines(diagnostics.getFile().toPath());
+    final String runId = lines.get(1).substring(0, lines.get(1).indexOf(';'));
+    assertThat(
+        lines,
+        contains(
+            SemanticDiagnostics.HEADER,
+            runId
+                + ";example.Foo;bar(int);array be empty;target.isEmpty(): [isEmpty];empty;2;0.5;1.0",
+            runId + ";example.Foo;bar(int);array be empty;\"a;b\";size;2;4.0;"));
+    assertThat(diagnostics.getFile().getName(), startsWith("wmd-distances-" + runId));
+  }
+
+  @Test
+  public void runsWriteDistinctFiles() throws IOException {
+    final File directory = new File(folder.getRoot(), "diagnostics");
+    final SemanticDiagnostics first = SemanticDiagnostics.open(directory);
+    final SemanticDiagnostics second = SemanticDiagnostics.open(directory);
+    first.close();
+    second.close();
+    assertThat(first.getFile(), is(not(second.getFile())));
+    assertThat(directory.list().length, is(2));
+  }
+}
@@ -0,0 +1,108 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.Assert.assertThat;
+
+import com.crtomirmajer.wmd4j.WordMovers;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.deeplearning4j.models.embeddings.loader.WordVectorSerializer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that {@code WordMoversDistance} computes the same distances as wmd4j's {@code WordMovers},
+ * which Toradocu used before, on a small random model. Vector components are multiples of 1/16,
+ * which are represented exactly by the half-precision floats of {@code EmbeddingStore}, so that the
+ * two implementations use the same vectors.
+ */
+public class WordMoversDifferentialTest {
+
+  private static final String[] VOCABULARY = {
+    "a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l"
+  };
+
+  private static final int DIMENSIONS = 8;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private WordMoversDistance wordMoversDistance;
+  private WordMovers wordMovers;
+
+  @Before
+  public void setUp() throws IOException {
+    final Random random = new Random(0);
+    final StringBuilder model = new StringBuilder();
+    for (String word : VOCABULARY) {
+      model.append(word);
+      for (int i = 0; i < DIMENSIONS; i++) {
+        model.append(" ").append((random.nextInt(65) - 32) / 16.0);
+      }
+      model.append("\n");
+    }
+    final byte[] modelBytes = model.toString().getBytes(StandardCharsets.UTF_8);
+
+    final Path store = folder.getRoot().toPath().resolve("model.emb");
+    EmbeddingStore.convert(new ByteArrayInputStream(modelBytes), store);
+    wordMoversDistance = new WordMoversDistance(EmbeddingStore.open(store));
+
+    final Path text = folder.getRoot().toPath().resolve("model.txt");
+    Files.write(text, modelBytes);
+    wordMovers =
+        WordMovers.Builder()
+            .wordVectors(WordVectorSerializer.loadTxtVectors(text.toFile()))
+            .build();
+  }
+
+  @Test
+  public void sameDistanceOnCornerCases() {
+    assertSameDistance("a", "a");
+    assertSameDistance("a", "b");
+    assertSameDistance("a a", "a");
+    assertSameDistance("a a b", "b");
+    assertSameDistance("a b", "b a");
+    assertSameDistance("a a a b", "b b c");
+    assertSameDistance("a b c d e f", "g");
+    assertSameDistance("a unknown", "b");
+    assertSameDistance("a unknown unknown", "a b unknown");
+  }
+
+  @Test
+  public void sameDistanceOnRandomTexts() {
+    final Random random = new Random(1);
+    for (int i = 0; i < 1000; i++) {
+      // Texts of different lengths, drawn from a part of the vocabulary so that words repeat.
+      final int words = 2 + random.nextInt(VOCABULARY.length - 1);
+      final String[] text1 = randomText(random, 1 + random.nextInt(8), words);
+      final String[] text2 = randomText(random, 1 + random.nextInt(8), words);
+      assertSameDistance(text1, text2);
+    }
+  }
+
+  private void assertSameDistance(String text1, String text2) {
+    assertSameDistance(text1.split(" "), text2.split(" "));
+  }
+
+  private void assertSameDistance(String[] text1, String[] text2) {
+    final double expected = wordMovers.distance(text1, text2);
+    assertThat(
+        Arrays.toString(text1) + " " + Arrays.toString(text2),
+        wordMoversDistance.distance(text1, text2),
+        closeTo(expected, 1e-4 * Math.max(1, expected)));
+  }
+
+  private static String[] randomText(Random random, int length, int words) {
+    final String[] text = new String[length];
+    for (int i = 0; i < length; i++) {
+      text[i] = i > 0 && random.nextInt(8) == 0 ? "unknown" : VOCABULARY[random.nextInt(words)];
+    }
+    return text;
+  }
+}
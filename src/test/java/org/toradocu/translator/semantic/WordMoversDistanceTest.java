@@ -0,0 +1,97 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WordMoversDistanceTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private WordMoversDistance wordMovers;
+
+  @Before
+  public void setUp() throws IOException {
+    final String model = "zero 0 0\n" + "five 3 4\n" + "ten 6 8\n" + "one 1 0\n";
+    final Path file = folder.getRoot().toPath().resolve("model.emb");
+    EmbeddingStore.convert(new ByteArrayInputStream(model.getBytes(StandardCharsets.UTF_8)), file);
+    wordMovers = new WordMoversDistance(EmbeddingStore.open(file));
+  }
+
+  @Test
+  public void distanceBetweenSingleWords() {
+    assertThat(wordMovers.distance("zero", "zero"), closeTo(0, 1e-6));
+    assertThat(wordMovers.distance("zero", "five"), closeTo(5, 1e-3));
+    assertThat(wordMovers.distance("five", "ten"), closeTo(5, 1e-3));
+    assertThat(wordMovers.distance("zero", "ten"), closeTo(10, 1e-3));
+  }
+
+  @Test
+  public void wordsAreMovedToTheNearestWords() {
+    assertThat(wordMovers.distance("zero five", "zero five"), closeTo(0, 1e-6));
+    assertThat(wordMovers.distance("zero five", "five"), closeTo(2.5, 1e-3));
+    assertThat(wordMovers.distance("zero ten", "one five"), closeTo(3, 1e-3));
+  }
+
+  @Test
+  public void wordsWithoutVectorAreIgnored() {
+    assertThat(wordMovers.distance("zero unknown", "five"), closeTo(5, 1e-3));
+  }
+
+  @Test
+  public void lowerBoundDoesNotExceedDistance() throws IOException {
+    final Random random = new Random(0);
+    final String[] vocabulary = {"a", "b", "c", "d", "e", "f", "g", "h"};
+    final StringBuilder model = new StringBuilder();
+    for (String word : vocabulary) {
+      model.append(word);
+      for (int i = 0; i < 5; i++) {
+        model.append(" ").append(random.nextFloat() * 2 - 1);
+      }
+      model.append("\n");
+    }
+    final Path file = folder.getRoot().toPath().resolve("random.emb");
+    EmbeddingStore.convert(
+        new ByteArrayInputStream(model.toString().getBytes(StandardCharsets.UTF_8)), file);
+    final WordMoversDistance randomWordMovers = new WordMoversDistance(EmbeddingStore.open(file));
+
+    for (int i = 0; i < 2000; i++) {
+      final String[] text1 = randomText(random, vocabulary);
+      final String[] text2 = randomText(random, vocabulary);
+      final WordMoversDistance.Comparison comparison = randomWordMovers.compare(text1, text2);
+      final String texts = Arrays.toString(text1) + " " + Arrays.toString(text2);
+      assertThat(texts, comparison.lowerBound(), lessThanOrEqualTo(comparison.distance()));
+    }
+    assertThat(wordMovers.compare("zero five", "ten").lowerBound(), closeTo(7.5, 1e-3));
+  }
+
+  private static String[] randomText(Random random, String[] vocabulary) {
+    final String[] text = new String[1 + random.nextInt(6)];
+    for (int i = 0; i < text.length; i++) {
+      text[i] = vocabulary[random.nextInt(vocabulary.length)];
+    }
+    return text;
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void textsMustContainWordsWithVector() {
+    wordMovers.distance("unknown", "five");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void textsMustNotBeEmpty() {
+    wordMovers.distance("", "five");
+  }
+}
@@ -0,0 +1,151 @@
+package org.toradocu.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.util.ComplianceChecks.SpecConditions;
+import randoop.condition.specification.Guard;
+import randoop.condition.specification.Property;
+
+/**
+ * Checks that {@code ComplianceChecks.areSpecsCompilable} tells that a specification is compilable
+ * exactly when {@code isSpecCompilable} or {@code isPostSpecCompilable} would.
+ */
+public class ComplianceChecksTest {
+
+  private static final String SOURCE_DIR =
+      "src/test/resources/src/commons-collections4-4.1-src/src/main/java";
+  private static final String BINARY = "src/test/resources/bin/commons-collections4-4.1.jar";
+  private static final String PACKAGE = "org.apache.commons.collections4";
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private DocumentedExecutable collectionIsEmpty;
+  private DocumentedExecutable mapIsEmpty;
+
+  @Before
+  public void setUp() throws Exception {
+    Configuration.INSTANCE.classDirs = Collections.singletonList(Paths.get(BINARY).toUri().toURL());
+    Configuration.INSTANCE.sourceDir = Paths.get(SOURCE_DIR);
+    collectionIsEmpty = findIsEmpty(PACKAGE + ".CollectionUtils");
+    mapIsEmpty = findIsEmpty(PACKAGE + ".MapUtils");
+  }
+
+  @Test
+  public void batchAgreesWithSingleChecks() {
+    final List<Spec> specs =
+        Arrays.asList(
+            pre(collectionIsEmpty, "args[0]==null"),
+            pre(mapIsEmpty, "args[0].isEmpty()"),
+            // Type error.
+            pre(collectionIsEmpty, "args[0].foo()"),
+            // Syntax error, left out of the batch by the JavaParser check.
+            pre(collectionIsEmpty, "args[0].size() >"),
+            // Needs an import of a class in the package of the declaring class.
+            pre(collectionIsEmpty, "args[0] instanceof Bag"),
+            // Compiles only with the import of the previous specification.
+            pre(collectionIsEmpty, "((Bag) args[0]).isEmpty()"),
+            post(collectionIsEmpty, "args[0]==null", "methodResultID==true"),
+            // Type error in the property.
+            post(collectionIsEmpty, "args[0]==null", "methodResultID.length==0"),
+            pre(mapIsEmpty, "args[0].length==0"),
+            pre(mapIsEmpty, "args[0] instanceof IterableMap"),
+            post(mapIsEmpty, "true", "methodResultID==(args[0].size()==0)"));
+
+    assertBatchAgreesWithSingleChecks(
+        specs,
+        Arrays.asList(true, true, false, false, true, false, true, false, false, true, true));
+  }
+
+  @Test
+  public void batchWithUnmappedErrorsAgreesWithSingleChecks() throws IOException {
+    // A source folder declaring a class that is not in the class path: its import is an error that
+    // does not belong to the method of any specification.
+    final Path sourceDir = temporaryFolder.newFolder().toPath();
+    final Path packageDir = Files.createDirectories(sourceDir.resolve(PACKAGE.replace('.', '/')));
+    Files.createFile(packageDir.resolve("Bag.java"));
+    Files.createFile(packageDir.resolve("Missing.java"));
+    Configuration.INSTANCE.sourceDir = sourceDir;
+
+    final List<Spec> specs =
+        Arrays.asList(
+            pre(collectionIsEmpty, "args[0]==null"),
+            pre(collectionIsEmpty, "args[0] instanceof Missing"),
+            pre(collectionIsEmpty, "args[0] instanceof Bag"),
+            pre(collectionIsEmpty, "args[0].foo()"),
+            pre(mapIsEmpty, "args[0].isEmpty()"));
+
+    assertBatchAgreesWithSingleChecks(specs, Arrays.asList(true, false, true, false, true));
+  }
+
+  private static void assertBatchAgreesWithSingleChecks(List<Spec> specs, List<Boolean> expected) {
+    final List<SpecConditions> conditions = new ArrayList<>();
+    for (Spec spec : specs) {
+      conditions.add(
+          spec.property == null
+              ? new SpecConditions(spec.method, spec.guard)
+              : new SpecConditions(spec.method, spec.guard, spec.property));
+    }
+    ComplianceChecks.clearVerdicts();
+    final List<Boolean> batch = ComplianceChecks.areSpecsCompilable(conditions);
+
+    final List<Boolean> single = new ArrayList<>();
+    for (Spec spec : specs) {
+      // Single checks must not reuse the verdicts of the batch or of other specifications.
+      ComplianceChecks.clearVerdicts();
+      single.add(
+          spec.property == null
+              ? ComplianceChecks.isSpecCompilable(spec.method, spec.guard)
+              : ComplianceChecks.isPostSpecCompilable(spec.method, spec.guard, spec.property));
+    }
+
+    assertThat(single, is(expected));
+    assertThat(batch, is(single));
+  }
+
+  private static Spec pre(DocumentedExecutable method, String guard) {
+    return new Spec(method, new Guard("", guard), null);
+  }
+
+  private static Spec post(DocumentedExecutable method, String guard, String property) {
+    return new Spec(method, new Guard("", guard), new Property("", property));
+  }
+
+  private static DocumentedExecutable findIsEmpty(String className) throws Exception {
+    for (DocumentedExecutable executable :
+        new JavadocExtractor().extract(className, SOURCE_DIR).getDocumentedExecutables()) {
+      if (executable.getName().equals("isEmpty")) {
+        return executable;
+      }
+    }
+    throw new AssertionError("No isEmpty method in " + className);
+  }
+
+  /** The conditions of a specification, and the method they belong to. */
+  private static class Spec {
+    private final DocumentedExecutable method;
+    private final Guard guard;
+    private final Property property;
+
+    Spec(DocumentedExecutable method, Guard guard, Property property) {
+      this.method = method;
+      this.guard = guard;
+      this.property = property;
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package org.toradocu.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * Checks that {@code Distance.editDistance}, also when bounded by a maximum distance, and the
+ * exhaustive reference implementation {@code Distance.editDistanceExhaustive} agree on identifiers
+ * and comments of the accuracy corpora.
+ */
+public class EditDistanceDifferentialTest {
+
+  private static final List<String> GOAL_DIRS =
+      Arrays.asList(
+          "src/test/resources/goal-output/commons-collections4-4.1",
+          "src/test/resources/goal-output/commons-math3-3.6.1",
+          "src/test/resources/goal-output/guava-19.0");
+
+  /** Maximum number of words of a subject; the reference implementation is factorial. */
+  private static final int MAX_WORDS = 5;
+
+  private static final int[] WORD_DELETION_COSTS = {0, 1, 2};
+
+  private static final int[] MAX_DISTANCES = {0, 1, 2, 5};
+
+  @Test
+  public void sameDistanceAsExhaustiveSearch() throws IOException {
+    int comparisons = 0;
+    for (String goalDir : GOAL_DIRS) {
+      try (DirectoryStream<Path> goalFiles = Files.newDirectoryStream(Paths.get(goalDir))) {
+        for (Path goalFile : goalFiles) {
+          try (Reader reader = Files.newBufferedReader(goalFile)) {
+            for (JsonElement method : new JsonParser().parse(reader).getAsJsonArray()) {
+              comparisons += compareOnMethod(method.getAsJsonObject());
+            }
+          }
+        }
+      }
+    }
+    // Make sure the corpora have actually been read.
+    assertTrue(comparisons > 10_000);
+  }
+
+  @Test
+  public void sameDistanceOnCornerCases() {
+    final String[] strings = {
+      "", " ", "  ", "x", "X y", "a  b", " a b ", "the specified Map", "map", "mapMap", "b a"
+    };
+    for (String s0 : strings) {
+      for (String s1 : strings) {
+        for (int cost : WORD_DELETION_COSTS) {
+          assertSameDistance(s0, s1, cost);
+        }
+      }
+    }
+  }
+
+  private static int compareOnMethod(JsonObject method) {
+    Set<String> identifiers = new LinkedHashSet<>();
+    identifiers.add(method.get("name").getAsString());
+    for (JsonElement parameter : method.getAsJsonArray("parameters")) {
+      identifiers.add(parameter.getAsJsonObject().get("name").getAsString());
+    }
+
+    List<String> comments = new ArrayList<>();
+    addComments(method.getAsJsonArray("paramTags"), comments);
+    addComments(method.getAsJsonArray("throwsTags"), comments);
+    if (method.has("returnTag")) {
+      comments.add(method.getAsJsonObject("returnTag").get("comment").getAsString());
+    }
+
+    int comparisons = 0;
+    for (String comment : comments) {
+      final String[] words = comment.split(" ");
+      for (int start = 0; start < words.length; start++) {
+        final int end = Math.min(words.length, start + MAX_WORDS);
+        final String subject = String.join(" ", Arrays.copyOfRange(words, start, end));
+        for (String identifier : identifiers) {
+          for (int cost : WORD_DELETION_COSTS) {
+            assertSameDistance(identifier, subject, cost);
+            comparisons++;
+          }
+        }
+      }
+    }
+    return comparisons;
+  }
+
+  /**
+   * Checks that the exhaustive reference implementation, the dynamic programming implementation,
+   * and its bounded variant compute the same distance between {@code s0} and {@code s1}.
+   */
+  private static void assertSameDistance(String s0, String s1, int cost) {
+    final String message = "Distance between '" + s0 + "' and '" + s1 + "', cost " + cost;
+    final int expected = Distance.editDistanceExhaustive(s0, s1, cost);
+    assertEquals(message, expected, Distance.editDistance(s0, s1, cost));
+    for (int maxDistance : MAX_DISTANCES) {
+      assertEquals(
+          message + ", max distance " + maxDistance,
+          expected <= maxDistance ? expected : Integer.MAX_VALUE,
+          Distance.editDistance(s0, s1, cost, maxDistance));
+    }
+  }
+
+  private static void addComments(JsonArray tags, List<String> comments) {
+    if (tags == null) {
+      return;
+    }
+    for (JsonElement tag : tags) {
+      comments.add(tag.getAsJsonObject().get("comment").getAsString());
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package org.toradocu.util;
+
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class IdentifierIndexTest {
+
+  private static final List<String> IDENTIFIERS =
+      Arrays.asList(
+          "map",
+          "Map",
+          "mapMap",
+          "this",
+          "this map",
+          "isEmpty",
+          "size",
+          "sizes",
+          "get",
+          "getValue",
+          "contains key",
+          "containsKey",
+          "the specified Map",
+          "",
+          "a  b");
+
+  private static final List<String> SUBJECTS =
+      Arrays.asList(
+          "",
+          " ",
+          "x",
+          "map",
+          "the map",
+          "the specified map",
+          "this map is empty",
+          "map is empty",
+          "the size",
+          "map contains the key",
+          "the value",
+          "a  b",
+          "the map size of the map is greater than the value");
+
+  @Test
+  public void sameResultsAsLinearScan() {
+    IdentifierIndex<String> index = new IdentifierIndex<>();
+    for (String identifier : IDENTIFIERS) {
+      index.add(identifier, identifier);
+      // Values may have more than one identifier.
+      index.add(identifier + "s", identifier);
+    }
+    for (String subject : SUBJECTS) {
+      for (int cost = 0; cost <= 2; cost++) {
+        for (int maxDistance = 0; maxDistance <= 4; maxDistance++) {
+          assertEquals(
+              "Subject '" + subject + "', cost " + cost + ", max distance " + maxDistance,
+              linearScan(subject, maxDistance, cost),
+              new HashMap<>(index.search(subject, maxDistance, cost)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void emptyIndex() {
+    assertThat(new IdentifierIndex<String>().search("map", 2, 1), is(anEmptyMap()));
+  }
+
+  private static Map<String, Integer> linearScan(String s, int maxDistance, int cost) {
+    Map<String, Integer> distances = new HashMap<>();
+    for (String identifier : IDENTIFIERS) {
+      final int distance =
+          Math.min(
+              Distance.editDistance(identifier, s, cost),
+              Distance.editDistance(identifier + "s", s, cost));
+      if (distance <= maxDistance) {
+        distances.put(identifier, distance);
+      }
+    }
+    return distances;
+  }
+}
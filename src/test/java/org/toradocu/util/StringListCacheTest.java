@@ -0,0 +1,89 @@
+package org.toradocu.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StringListCacheTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void wordsAreReusedAcrossRuns() throws IOException {
+    final File directory = folder.getRoot();
+    StringListCache cache = StringListCache.open(directory, "lemmas.txt", "1.0");
+    assertThat(cache.get("getChildren"), is(nullValue()));
+    cache.put("getChildren", Arrays.asList("get", "child"));
+    assertThat(cache.get("getChildren"), contains("get", "child"));
+
+    cache = StringListCache.open(directory, "lemmas.txt", "1.0");
+    assertThat(cache.get("getChildren"), contains("get", "child"));
+    assertThat(cache.get("isEmpty"), is(nullValue()));
+  }
+
+  @Test
+  public void differentVersionInvalidatesCache() throws IOException {
+    final File directory = folder.getRoot();
+    StringListCache.open(directory, "lemmas.txt", "1.0")
+        .put("getChildren", Arrays.asList("get", "child"));
+    assertThat(
+        StringListCache.open(directory, "lemmas.txt", "2.0").get("getChildren"), is(nullValue()));
+    assertThat(
+        StringListCache.open(directory, "lemmas.txt", "1.0").get("getChildren"), is(nullValue()));
+  }
+
+  @Test
+  public void cachesSharingAFileAppendTheirEntries() throws IOException {
+    final File directory = folder.getRoot();
+    final StringListCache cache1 = StringListCache.open(directory, "lemmas.txt", "1.0");
+    final StringListCache cache2 = StringListCache.open(directory, "lemmas.txt", "1.0");
+    cache1.put("getChildren", Arrays.asList("get", "child"));
+    cache2.put("isEmpty", Arrays.asList("be", "empty"));
+
+    final StringListCache cache = StringListCache.open(directory, "lemmas.txt", "1.0");
+    assertThat(cache.get("getChildren"), contains("get", "child"));
+    assertThat(cache.get("isEmpty"), contains("be", "empty"));
+  }
+
+  @Test
+  public void differentVersionDoesNotReceiveOldEntries() throws IOException {
+    final File directory = folder.getRoot();
+    final StringListCache oldCache = StringListCache.open(directory, "lemmas.txt", "1.0");
+    StringListCache.open(directory, "lemmas.txt", "2.0")
+        .put("isEmpty", Arrays.asList("be", "empty"));
+    oldCache.put("getChildren", Arrays.asList("get", "child"));
+
+    final StringListCache cache = StringListCache.open(directory, "lemmas.txt", "2.0");
+    assertThat(cache.get("isEmpty"), contains("be", "empty"));
+    assertThat(cache.get("getChildren"), is(nullValue()));
+  }
+
+  @Test
+  public void incompleteEntryIsDiscarded() throws IOException {
+    final File directory = folder.getRoot();
+    StringListCache cache = StringListCache.open(directory, "lemmas.txt", "1.0");
+    cache.put("getChildren", Arrays.asList("get", "child"));
+    cache.put("isEmpty", Arrays.asList("be", "empty"));
+    final File cacheFile = new File(directory, "lemmas.txt");
+    try (RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")) {
+      file.setLength(file.length() - 1);
+    }
+
+    cache = StringListCache.open(directory, "lemmas.txt", "1.0");
+    assertThat(cache.get("getChildren"), contains("get", "child"));
+    assertThat(cache.get("isEmpty"), is(nullValue()));
+    cache.put("isEmpty", Arrays.asList("be", "empty"));
+
+    cache = StringListCache.open(directory, "lemmas.txt", "1.0");
+    assertThat(cache.get("isEmpty"), contains("be", "empty"));
+  }
+}